@@ -11,8 +11,21 @@
 */
 
 package org.app;
-import org.app.applications.encryption.ReadFile;
+import java.awt.event.ActionListener;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.app.applications.encryption.EncryptionTask;
+import org.app.applications.encryption.KeyFileWatcher;
+import org.app.applications.encryption.KeyGenerator;
+import org.app.applications.encryption.KeyMaterial;
+import org.app.applications.encryption.RsaKey;
 import org.app.applications.encryption.TestEncryption;
+import org.app.applications.primality.PrimalityCheckpoint;
+import org.app.applications.primality.PrimalityProgress;
+import org.app.applications.primality.PrimeIndex;
 import org.app.applications.primality.SavePrimality;
 import org.app.applications.primality.TestPrimality;
 import org.app.windows.WinManager;
@@ -68,12 +81,22 @@ public class App {
 	private static SavePrimality saveInFilePrimality;
 
 	/**
-     * Oggetto per leggere i file necessari alle operazioni di crittografia.
+     * Contenuto del file di chiavi necessario alle operazioni di crittografia.
+     * <p>
+     * Questo attributo contiene l'istanza di {@link KeyMaterial} letta una sola volta al caricamento del file, utilizzata per verificare il file,
+     * scegliere le righe e creare {@link TestEncryption}.
+     * </p>
+     */
+	private static KeyMaterial keyMaterialEncryption;
+
+	/**
+     * Controllo in background delle modifiche al file di chiavi.
      * <p>
-     * Questo attributo contiene l'istanza di {@link ReadFile} che viene utilizzata per leggere i file e verificare i dati necessari per le operazioni di crittografia.
+     * Questo attributo contiene l'istanza di {@link KeyFileWatcher} che osserva il file letto e, quando cambia, lo legge di nuovo
+     * e aggiorna lo stato del file nell'interfaccia utente.
      * </p>
      */
-	private static ReadFile readFileEncryption;
+	private static KeyFileWatcher keyFileWatcherEncryption;
 
 	/**
      * Thread utilizzato per eseguire i test di primalità.
@@ -83,28 +106,69 @@ public class App {
      */
 	private static Thread taskPrimalityTest;
 
-    /**
-     * {@link Runnable} per stampare i risultati del test di primalità e aggiornare l'interfaccia utente.
+	/**
+     * Calcolo di crittografia o decrittografia in corso.
      * <p>
-     * Questo {@link Runnable} è responsabile dell'aggiornamento dell'interfaccia utente con i risultati calcolati dal test di primalità.
+     * Questo attributo contiene l'istanza di {@link EncryptionTask} dell'ultimo calcolo avviato, le callback dei calcoli precedenti vengono ignorate.
      * </p>
      */
-	public static Runnable printResultPrimality = () -> {
-		windowManager.incrementCalculatedPrimeNumbers();
-		if(!primalityTest.getResult().equals("1") && !primalityTest.getResult().equals("0")  ){
-			windowManager.appendCalculatedNumber( "   " + primalityTest.getResult() +"\n");
-		}
-	};
+	private static EncryptionTask encryptionTask;
+
+	/**
+     * Thread utilizzato per eseguire la crittografia e la decrittografia.
+     * <p>
+     * Questo attributo contiene il {@link Thread} che esegue {@link EncryptionTask}, in modo che la UI non si blocchi con messaggi lunghi.
+     * </p>
+     */
+	private static Thread taskEncryption;
+
+	/**
+     * Avanzamento del calcolo di primalità in corso.
+     * <p>
+     * Questo attributo contiene l'istanza di {@link PrimalityProgress} in cui {@link TestPrimality} conta i candidati e aggiunge i numeri primi trovati.
+     * </p>
+     */
+	private static PrimalityProgress progressPrimality;
+
+	/**
+     * Indice su disco dei numeri primi già calcolati.
+     * <p>
+     * Questo attributo contiene l'istanza di {@link PrimeIndex} condivisa da tutte le ricerche, con cui {@link TestPrimality} legge gli intervalli già calcolati
+     * e aggiunge quelli nuovi.
+     * </p>
+     */
+	private static PrimeIndex indexPrimality;
 
 	/**
-     * {@link Runnable} per incrementare la barra di progresso nell'interfaccia utente.
+     * Timer che aggiorna l'interfaccia utente con l'avanzamento del calcolo di primalità.
      * <p>
-     * Questo {@link Runnable} è responsabile dell'incremento della barra di progresso durante l'esecuzione del calcolo di primalità.
+     * Questo attributo contiene il {@link Timer} che ogni {@link PrimalityProgress#FRAME_MILLIS} millisecondi invoca {@link #printResultPrimality}
+     * sul thread degli eventi, fino al termine del calcolo.
      * </p>
      */
-	private static Runnable incrementProgressBar = () -> {
-        windowManager.incrementProgressBar();
-    };
+	private static Timer timerPrimality;
+
+    /**
+     * {@link ActionListener} per stampare i risultati del test di primalità e aggiornare l'interfaccia utente.
+     * <p>
+     * Questo {@link ActionListener} è invocato da {@link #timerPrimality} sul thread degli eventi: legge l'avanzamento raccolto dal calcolo
+     * dall'aggiornamento precedente e aggiorna con una sola operazione i numeri calcolati, la lista dei risultati e la barra di progresso.
+     * La lista legge i numeri primi direttamente dai risultati di {@link TestPrimality}.
+     * </p>
+     */
+	private static ActionListener printResultPrimality = e -> {
+		final PrimalityProgress progress = progressPrimality;
+		//il termine viene letto prima dei contatori, così nessun numero aggiunto prima del termine viene perso
+		final boolean finished = progress.isFinished();
+		final long found = progress.drainFound();
+		if (found > 0) {
+			windowManager.incrementCalculatedPrimeNumbers(found);
+			windowManager.appendCalculatedNumbers(found);
+		}
+		final long processed = progress.drainProcessed();
+		if (processed > 0) windowManager.incrementProgressBar(processed);
+		if (finished) timerPrimality.stop();
+	};
 	
 	/**
      * {@link Runnable} per fermare il calcolo di primalità.
@@ -118,15 +182,30 @@ public class App {
         }
 	};
 	
+	/**
+	 * Genera l'intestazione dei risultati della ricerca sui numeri primi, comune al salvataggio al termine e al salvataggio durante la ricerca.
+	 * <p>
+	 * L'intestazione contiene il titolo della sezione, il valore minimo e massimo dell'intervallo di ricerca e il metodo di calcolo utilizzato.
+	 * </p>
+	 * 
+	 * @return Le righe dell'intestazione, ognuna terminata da un ritorno a capo.
+	 */
+	private static String getHeader(){
+		StringBuilder stringResults = new StringBuilder();
+		stringResults.append("Ricerca Numeri Primi\n");
+		stringResults.append("Input minimo: " + ((windowManager.getExpMin() != 0)?windowManager.getValMin() + " * 10 ^ "+windowManager.getExpMin():windowManager.getMin()) +"\n");
+		stringResults.append("Input massimo: " + ((windowManager.getExpMax() != 0)?windowManager.getValMax() + " * 10 ^ "+windowManager.getExpMax():windowManager.getMax()) +"\n");
+		stringResults.append("Metodo calcolo: " + windowManager.toStringMetodo()+"\n");
+		return stringResults.toString();
+	}
+
 	/**
 	 * Genera una stringa di risultati della ricerca sui numeri primi.
 	 * <p>
 	 * Questo metodo costruisce una stringa che include informazioni dettagliate sui risultati della ricerca di numeri primi. 
 	 * La stringa contiene:
 	 * <ul>
-	 *     <li>Il titolo della sezione ("Ricerca Numeri Primi").</li>
-	 *     <li>Il valore minimo e massimo dell'intervallo di ricerca, formattato con un esponente se l'esponente non è zero.</li>
-	 *     <li>Il metodo di calcolo utilizzato per la ricerca dei numeri primi.</li>
+	 *     <li>L'intestazione generata da {@link #getHeader()}.</li>
 	 *     <li>Il tempo totale impiegato per il calcolo.</li>
 	 *     <li>Il numero di numeri primi calcolati, o 0 se il risultato è vuoto.</li>
 	 *     <li>Una lista dei numeri primi calcolati, ognuno su una nuova riga.</li>
@@ -136,13 +215,10 @@ public class App {
 	 * @return Una stringa che rappresenta i risultati della ricerca di numeri primi, formattata per la visualizzazione o la stampa.
 	 */
 	private static String getResults(){
-		StringBuilder stringResults = new StringBuilder();
-		stringResults.append("Ricerca Numeri Primi\n");
-		stringResults.append("Input minimo: " + ((windowManager.getExpMin() != 0)?windowManager.getValMin() + " * 10 ^ "+windowManager.getExpMin():windowManager.getMin()) +"\n");
-		stringResults.append("Input massimo: " + ((windowManager.getExpMax() != 0)?windowManager.getValMax() + " * 10 ^ "+windowManager.getExpMax():windowManager.getMax()) +"\n");
-		stringResults.append("Metodo calcolo: " + windowManager.toStringMetodo()+"\n");
+		StringBuilder stringResults = new StringBuilder(getHeader());
 		stringResults.append("Tempo calcolo: " + primalityTest.getTime() + "s\n");
-		stringResults.append("Numeri calcolati: " + (primalityTest.getResults().size() == 1 && primalityTest.getResults().get(0).equals("") ? 0 : primalityTest.getResults().size()) + "\n");
+		stringResults.append("Numeri calcolati: " + primalityTest.getResults().size() + "\n");
+		if (primalityTest.getResults().isEmpty()) stringResults.append("\n");
 		for (String result : primalityTest.getResults()){
 			stringResults.append(result).append("\n");
 		}
@@ -169,15 +245,32 @@ public class App {
      * </p>
      */
 	public static Runnable initAndCheckReadingFile = () -> {
-		
-		readFileEncryption = new ReadFile(windowManager.getPathReading(),windowManager.getModInverse());
-		windowManager.setFileErrorType(readFileEncryption.checkFile());
-		readFileEncryption = new ReadFile(windowManager.getPathReading(),windowManager.getModInverse());
-			String[] selectedRows = readFileEncryption.getRows();
-			if (readFileEncryption.checkFile() == true) {
-				encryption = new TestEncryption(windowManager.getModInverse(),selectedRows[0],selectedRows[1],selectedRows[2]);
-			}
+		keyMaterialEncryption = KeyMaterial.parse(windowManager.getPathReading(),windowManager.getModInverse());
+		windowManager.setFileErrorType(keyMaterialEncryption.isValid());
+		if (keyMaterialEncryption.isValid() == true) {
+			encryption = keyMaterialEncryption.newEncryption();
+		}
+		keyFileWatcherEncryption.watch(keyMaterialEncryption);
+	};
 
+	/**
+     * {@link Consumer} invocato da {@link KeyFileWatcher} quando il file di crittografia cambia.
+     * <p>
+     * Questo {@link Consumer} aggiorna sul thread della UI lo stato del file e la chiave in uso, a meno che il file non sia più quello selezionato
+     * o sia in uso una chiave generata.
+     * </p>
+     */
+	private static Consumer<KeyMaterial> keyFileChangedEncryption = (keyMaterial) -> {
+		SwingUtilities.invokeLater(() -> {
+			if (keyMaterialEncryption == null || windowManager.getKeyGenerated()) return;
+			if (!keyMaterial.getPath().equals(keyMaterialEncryption.getPath()) || keyMaterial.getModInverse() != keyMaterialEncryption.getModInverse()) return;
+			keyMaterialEncryption = keyMaterial;
+			windowManager.setFileErrorType(keyMaterial.isValid());
+			//il controllo prosegue anche su un file non valido, la chiave viene creata di nuovo solo quando il file torna valido
+			if (keyMaterial.isValid() == true) {
+				encryption = keyMaterial.newEncryption();
+			}
+		});
 	};
 
 
@@ -186,46 +279,153 @@ public class App {
      * {@link Runnable} per avviare il calcolo dei numeri primi.
      * <p>
      * Questo {@link Runnable} crea un'istanza di {@link TestPrimality}, avvia un nuovo thread per eseguire il calcolo e aggiorna l'interfaccia utente.
+     * Il calcolo scrive un nuovo giornale {@link PrimalityCheckpoint} da cui può essere ripreso se viene interrotto.
      * </p>
      */
 	public static Runnable startCalcPrimality = () -> {
-		primalityTest = new TestPrimality(windowManager.getMin(), windowManager.getMax(), windowManager.getMetodo(), stopCalcPrimality, incrementProgressBar,printResultPrimality);
+		startTestPrimality(null);
+	};
+
+    /**
+     * {@link Runnable} per riprendere il calcolo dei numeri primi dall'ultimo punto di ripresa.
+     * <p>
+     * Questo {@link Runnable} legge il giornale {@link PrimalityCheckpoint} della ricerca con lo stesso intervallo e lo stesso metodo e riprende il calcolo
+     * dal prossimo numero da verificare, con i numeri primi e il tempo di calcolo già registrati. Se il giornale non esiste viene mostrata una finestra di errore.
+     * </p>
+     */
+	public static Runnable resumeCalcPrimality = () -> {
+		PrimalityCheckpoint checkpoint = PrimalityCheckpoint.load(windowManager.getMin(), windowManager.getMax(), windowManager.getMetodo());
+		if (checkpoint == null) {
+			windowManager.openWindowErrorResume();
+			return;
+		}
+		windowManager.initWindowOutputResume(checkpoint.getNext().toString(), checkpoint.getTime());
+		startTestPrimality(checkpoint);
+	};
+
+	/**
+	 * Crea un'istanza di {@link TestPrimality} con le impostazioni della finestra e avvia il thread del calcolo.
+	 * 
+	 * @param checkpoint Il giornale letto della ricerca da riprendere, o {@code null} per avviare una nuova ricerca.
+	 */
+	private static void startTestPrimality(PrimalityCheckpoint checkpoint){
+		progressPrimality = new PrimalityProgress();
+		primalityTest = new TestPrimality(windowManager.getMin(), windowManager.getMax(), windowManager.getMetodo(), stopCalcPrimality, progressPrimality);
+		if (checkpoint != null) {
+			primalityTest.resume(checkpoint);
+		} else {
+			primalityTest.setCheckpoint(PrimalityCheckpoint.create(windowManager.getMin(), windowManager.getMax(), windowManager.getMetodo()));
+		}
+		windowManager.setResultsSource(primalityTest.getResults()::toString);
+		primalityTest.setIndex(indexPrimality);
+		primalityTest.setParallel(windowManager.getParallel());
+		primalityTest.setWheel(windowManager.getWheel());
+		primalityTest.setRounds(windowManager.getRounds());
+		if (windowManager.getStreamPath() != null) {
+			SavePrimality streamingSave = new SavePrimality(windowManager.getStreamPath());
+			streamingSave.open(getHeader());
+			primalityTest.setSave(streamingSave);
+		}
         taskPrimalityTest = new Thread(primalityTest, "Thread-TestPrimalita");
         taskPrimalityTest.start();
+		timerPrimality.restart();
+	}
+
+	/**
+     * Callback per incrementare la barra di progresso della crittografia.
+     * <p>
+     * Questa callback viene invocata dai thread di calcolo al termine di ogni parte del messaggio e aggiorna la UI sul thread degli eventi.
+     * </p>
+     */
+	private static Consumer<EncryptionTask> incrementProgressBarEncryption = task -> {
+		SwingUtilities.invokeLater(() -> {
+			if (task == encryptionTask) windowManager.incrementProgressBarEncryption();
+		});
+	};
+
+	/**
+     * Callback per visualizzare il risultato della crittografia.
+     * <p>
+     * Questa callback viene invocata al termine del calcolo e aggiorna la UI sul thread degli eventi con il risultato o con l'errore del messaggio.
+     * </p>
+     */
+	private static Consumer<EncryptionTask> printResultEncryption = task -> {
+		SwingUtilities.invokeLater(() -> {
+			if (task != encryptionTask) return;
+			if (task.getResult() != null) {
+				windowManager.setResultsEncryption(task.getResult());
+				windowManager.endCalcEncryption(String.format("Calcolo terminato in %.2fs", task.getTime()));
+			} else {
+				windowManager.endCalcEncryption("Messaggio non valido");
+			}
+		});
+	};
+
+	/**
+     * {@link Runnable} per fermare il calcolo della crittografia.
+     * <p>
+     * Questo {@link Runnable} interrompe il thread di crittografia se è in esecuzione.
+     * </p>
+     */
+	public static Runnable stopCalcEncryption = () -> {
+		if (taskEncryption != null) {
+            taskEncryption.interrupt();
+        }
 	};
 
 	/**
      * {@link Runnable} per avviare il calcolo della crittografia.
      * <p>
-     * Questo {@link Runnable} legge il file di crittografia e, in base al metodo di crittografia, esegue l'operazione di crittografia o decrittografia.
+     * Questo {@link Runnable} legge il file di crittografia e, in base al metodo di crittografia, esegue l'operazione di crittografia o decrittografia
+     * con {@link EncryptionTask} su un thread separato, interrompendo il calcolo precedente se è ancora in corso.
      * </p>
      */
 	public static Runnable startCalcEncryption = () -> {
-		readFileEncryption = new ReadFile(windowManager.getPathReading(),windowManager.getModInverse());
-		if (readFileEncryption.checkFile() == true) {
-			
-				if(windowManager.getEncryptionMetodo() == 0){	
-					windowManager.setResultsEncryption(encryption.encrypt(windowManager.getMessage()));
-				}else{
-					windowManager.setResultsEncryption(encryption.decrypt(windowManager.getMessage()));
-				}
-			
-
-		
+		if (windowManager.getKeyGenerated() || (keyMaterialEncryption != null && keyMaterialEncryption.isValid() == true)) {
+				stopCalcEncryption.run();
+				windowManager.setKeyInfoEncryption((encryption.getLinearIterations() == null)?"":"<html>d con Euclide esteso: "+encryption.getEuclidSteps()+" passi<br>Ricerca lineare: "+encryption.getLinearIterations()+" iterazioni</html>");
+				encryption.setBlock(windowManager.getEncryptionMetodo() >= 2);
+				encryption.setCache(windowManager.getCache());
+				encryption.setCrt(windowManager.getCrt());
+				encryptionTask = new EncryptionTask(encryption, windowManager.getMessage(), windowManager.getEncryptionMetodo() % 2 == 0, incrementProgressBarEncryption, printResultEncryption);
+				windowManager.initProgressBarEncryption(encryptionTask.getChunks());
+				taskEncryption = new Thread(encryptionTask, "Thread-Crittografia");
+				taskEncryption.start();
 		}
+	};
 
-		
+	/**
+     * {@link Runnable} per generare una nuova chiave RSA.
+     * <p>
+     * Questo {@link Runnable} genera con {@link KeyGenerator} una chiave di {@link KeyGenerator#DEFAULT_BITS} bit su un thread separato
+     * e, al termine, la utilizza al posto di quella letta da file.
+     * </p>
+     */
+	public static Runnable generateKey = () -> {
+		windowManager.setKeyGenerating();
+		new Thread(() -> {
+			try {
+				RsaKey key = new KeyGenerator().generate(KeyGenerator.DEFAULT_BITS);
+				SwingUtilities.invokeLater(() -> {
+					encryption = new TestEncryption(key);
+					windowManager.setKeyGenerated();
+				});
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, "Thread-GenerazioneChiave").start();
 	};
 
 	/**
-     * {@link Runnable} per controllare eventuali modifiche al file di crittografia.
+     * {@link Runnable} per controllare il file di crittografia quando cambia l'opzione del modulo inverso.
      * <p>
-     * Questo {@link Runnable} verifica se il file di crittografia è stato modificato e, se necessario, aggiorna l'interfaccia utente di conseguenza.
+     * Questo {@link Runnable} verifica il file di crittografia già letto e, se necessario, aggiorna l'interfaccia utente di conseguenza.
+     * Le modifiche al contenuto del file sono invece rilevate da {@link KeyFileWatcher}.
      * </p>
      */
 	public static Runnable checkFileOnchange = () -> {
-		if (readFileEncryption != null){
-			if(readFileEncryption.checkFile()){
+		if (keyMaterialEncryption != null && !windowManager.getKeyGenerated()){
+			if(keyMaterialEncryption.isValid()){
 				windowManager.setFileErrorType(false);
 				windowManager.openWindowErrorOutput();
 			
@@ -244,7 +444,10 @@ public class App {
      * </p>
      */
 	public App(){
-		windowManager = new WinManager(startCalcPrimality,stopCalcPrimality,startSavingPrimality,startCalcEncryption,initAndCheckReadingFile,checkFileOnchange);
+		timerPrimality = new Timer(PrimalityProgress.FRAME_MILLIS, printResultPrimality);
+		indexPrimality = new PrimeIndex(PrimalityCheckpoint.DIRECTORY);
+		keyFileWatcherEncryption = new KeyFileWatcher(keyFileChangedEncryption);
+		windowManager = new WinManager(startCalcPrimality,stopCalcPrimality,startSavingPrimality,startCalcEncryption,initAndCheckReadingFile,checkFileOnchange,stopCalcEncryption,generateKey,resumeCalcPrimality);
 	}
 	
 
@@ -0,0 +1,285 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.encryption;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Classe che sviluppa la cifratura o la decifratura di un messaggio con {@link TestEncryption} fuori dal thread della UI.
+ * <p>
+ * Il messaggio, oppure la sequenza dei numeri cifrati, è diviso in parti di {@link #CHUNK_TOKENS} elevamenti a potenza
+ * elaborate da un {@link ForkJoinPool} e riunite nell'ordine originale, quindi il risultato è uguale a quello di
+ * {@link TestEncryption#encrypt(String)} e {@link TestEncryption#decrypt(String)}.
+ * Al termine di ogni parte viene invocata la callback di avanzamento e al termine del calcolo la callback del risultato.
+ * Se il thread viene interrotto le parti in corso vengono annullate e la callback del risultato non viene invocata.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class EncryptionTask implements Runnable {
+
+    /** Numero di caratteri, blocchi o numeri cifrati elaborati da una parte. */
+    public static final int CHUNK_TOKENS = 256;
+
+    /** Istanza con la chiave e le opzioni con cui cifrare o decifrare. */
+    private final TestEncryption encryption;
+
+    /** Se true il messaggio viene cifrato, altrimenti decifrato. */
+    private final boolean encrypt;
+
+    /** Messaggio in chiaro da cifrare. */
+    private String plaintext;
+
+    /** Messaggio in chiaro in byte UTF-8 da cifrare a blocchi. */
+    private byte[] bytes;
+
+    /** Numeri cifrati da decifrare. */
+    private String[] tokens;
+
+    /** Numero di elementi del messaggio: caratteri, byte o numeri cifrati. */
+    private final int length;
+
+    /** Numero di elementi del messaggio elaborati da una parte. */
+    private final int chunkLength;
+
+    /** Numero di parti in cui è diviso il messaggio. */
+    private final int chunks;
+
+    /** Numero di thread utilizzati. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Callback invocata al termine di ogni parte. */
+    private final Consumer<EncryptionTask> incrementProgressBar;
+
+    /** Callback invocata al termine del calcolo. */
+    private final Consumer<EncryptionTask> printResult;
+
+    /** Messaggio cifrato o decifrato, null se il calcolo non è terminato o il messaggio non è valido. */
+    private volatile String result;
+
+    /** Tempo impiegato dal calcolo in secondi. */
+    private volatile double time;
+
+    /**
+     * Costruttore che divide il messaggio in parti.
+     *
+     * @param encryption Istanza con la chiave e le opzioni con cui cifrare o decifrare.
+     * @param message Il messaggio in chiaro da cifrare o il messaggio cifrato da decifrare.
+     * @param encrypt Se true il messaggio viene cifrato, altrimenti decifrato.
+     * @param incrementProgressBar Callback invocata, da un thread di calcolo, al termine di ogni parte.
+     * @param printResult Callback invocata, dal thread di calcolo, al termine del calcolo o se il messaggio non è valido.
+     */
+    public EncryptionTask(TestEncryption encryption, String message, boolean encrypt, Consumer<EncryptionTask> incrementProgressBar, Consumer<EncryptionTask> printResult) {
+        this.encryption = encryption;
+        this.encrypt = encrypt;
+        this.incrementProgressBar = incrementProgressBar;
+        this.printResult = printResult;
+        if (!encrypt) {
+            this.tokens = message.split(" ");
+            this.length = tokens.length;
+            this.chunkLength = CHUNK_TOKENS;
+        } else if (encryption.isBlock()) {
+            this.bytes = message.getBytes(StandardCharsets.UTF_8);
+            this.length = bytes.length;
+            // le parti iniziano a un multiplo della dimensione del blocco
+            this.chunkLength = CHUNK_TOKENS * encryption.getBlockSize();
+        } else {
+            this.plaintext = message;
+            this.length = message.length();
+            this.chunkLength = CHUNK_TOKENS;
+        }
+        this.chunks = (length + chunkLength - 1) / chunkLength;
+    }
+
+    /**
+     * Imposta il numero di thread utilizzati.
+     *
+     * @param parallelism Numero di thread, almeno 1. Con 1 le parti sono elaborate sul thread corrente.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Restituisce il numero di parti in cui è diviso il messaggio, da utilizzare come massimo della barra di avanzamento.
+     *
+     * @return Il numero di parti.
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Restituisce il messaggio cifrato o decifrato.
+     *
+     * @return Il risultato, null se il calcolo non è terminato o il messaggio non è valido.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Restituisce il tempo impiegato dal calcolo.
+     *
+     * @return Il tempo in secondi.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Sviluppa il calcolo e invoca la callback del risultato, a meno che il thread venga interrotto.
+     */
+    @Override
+    public void run() {
+        long startTime = System.nanoTime();
+        try {
+            result = calc();
+        } catch (InterruptedException e) {
+            return;
+        } catch (IllegalArgumentException e) {
+            //il messaggio cifrato contiene valori che non sono numeri
+            result = null;
+        }
+        time = (System.nanoTime() - startTime) / 1e9;
+        if (Thread.currentThread().isInterrupted()) return;
+        printResult.accept(this);
+    }
+
+    /**
+     * Elabora tutte le parti, in parallelo se sono più di una, e le riunisce nell'ordine originale.
+     *
+     * @return Il messaggio cifrato o decifrato.
+     * @throws InterruptedException se il thread viene interrotto.
+     */
+    private String calc() throws InterruptedException {
+        List<Chunk> parts = new ArrayList<>(chunks);
+        if (chunks <= 1 || parallelism <= 1) {
+            for (int i = 0; i < chunks; i++) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+                parts.add(calcChunk(i));
+            }
+            return join(parts);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<Chunk>> futures = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                final int index = i;
+                futures.add(pool.submit(() -> calcChunk(index)));
+            }
+            for (Future<Chunk> future : futures) {
+                parts.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) throw (IllegalArgumentException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        return join(parts);
+    }
+
+    /**
+     * Elabora una parte del messaggio e invoca la callback di avanzamento.
+     *
+     * @param index Indice della parte.
+     * @return La parte elaborata: testo, oppure byte per la decifratura a blocchi.
+     */
+    private Chunk calcChunk(int index) {
+        final int from = index * chunkLength;
+        final int to = Math.min(length, from + chunkLength);
+        Chunk part;
+        if (!encrypt) {
+            part = encryption.isBlock() ? new Chunk(encryption.decryptBlocks(tokens, from, to)) : new Chunk(encryption.decryptChars(tokens, from, to));
+        } else if (bytes != null) {
+            part = new Chunk(encryption.encryptBlocks(bytes, from, to));
+        } else {
+            part = new Chunk(encryption.encryptChars(plaintext, from, to));
+        }
+        incrementProgressBar.accept(this);
+        return part;
+    }
+
+    /**
+     * Riunisce le parti nell'ordine originale.
+     *
+     * @param parts Le parti elaborate.
+     * @return Il messaggio cifrato, con le parti separate da spazi, o il messaggio decifrato.
+     */
+    private String join(List<Chunk> parts) {
+        if (encrypt) {
+            StringBuilder ciphertext = new StringBuilder();
+            for (Chunk part : parts) {
+                if (ciphertext.length() > 0) ciphertext.append(" ");
+                ciphertext.append(part.text);
+            }
+            return ciphertext.toString();
+        }
+        if (encryption.isBlock()) {
+            ByteArrayOutputStream plaintextBytes = new ByteArrayOutputStream();
+            for (Chunk part : parts) {
+                plaintextBytes.write(part.bytes, 0, part.bytes.length);
+            }
+            return new String(plaintextBytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+        StringBuilder plaintext = new StringBuilder();
+        for (Chunk part : parts) {
+            plaintext.append(part.text);
+        }
+        return plaintext.toString();
+    }
+
+    /**
+     * Risultato di una parte del messaggio: testo per la cifratura e la decifratura a caratteri, byte per la decifratura a blocchi,
+     * che vengono convertiti in testo solo dopo averli riuniti perché un carattere UTF-8 può essere diviso tra due parti.
+     */
+    private static final class Chunk {
+
+        /** Testo della parte, null se la parte contiene byte. */
+        final String text;
+
+        /** Byte della parte, null se la parte contiene testo. */
+        final byte[] bytes;
+
+        /**
+         * Costruttore di una parte di testo.
+         *
+         * @param text Testo della parte.
+         */
+        Chunk(String text) {
+            this.text = text;
+            this.bytes = null;
+        }
+
+        /**
+         * Costruttore di una parte di byte.
+         *
+         * @param bytes Byte della parte.
+         */
+        Chunk(byte[] bytes) {
+            this.text = null;
+            this.bytes = bytes;
+        }
+    }
+}
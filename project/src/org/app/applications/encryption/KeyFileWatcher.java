@@ -0,0 +1,168 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.encryption;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Classe che controlla in background le modifiche al file di chiavi in uso con un {@link WatchService}.
+ * <p>
+ * Viene osservata la cartella del file, perché molti editor salvano scrivendo un nuovo file e rinominandolo.
+ * Gli eventi che arrivano a meno di {@link #DEBOUNCE_MILLIS} millisecondi l'uno dall'altro vengono raggruppati
+ * e al termine il file viene letto di nuovo solo se {@link KeyMaterial#isChanged()} rileva una modifica.
+ * Il nuovo contenuto, valido o no, viene passato alla callback dal thread di controllo e il controllo prosegue.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class KeyFileWatcher {
+
+    /** Intervallo in millisecondi senza eventi dopo cui una serie di modifiche si considera terminata. */
+    public static final long DEBOUNCE_MILLIS = 300;
+
+    /** Callback invocata, dal thread di controllo, con il nuovo contenuto del file. */
+    private final Consumer<KeyMaterial> onChange;
+
+    /** Contenuto del file osservato, letto l'ultima volta. */
+    private volatile KeyMaterial keyMaterial;
+
+    /** Cartella osservata, null se il controllo non è attivo. */
+    private Path directory;
+
+    /** Servizio che segnala gli eventi della cartella. */
+    private WatchService watchService;
+
+    /** Thread di controllo. */
+    private Thread thread;
+
+    /**
+     * Costruttore della classe KeyFileWatcher.
+     *
+     * @param onChange Callback invocata, dal thread di controllo, con il nuovo contenuto del file quando cambia.
+     */
+    public KeyFileWatcher(Consumer<KeyMaterial> onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * Avvia il controllo del file letto. Se la cartella è già osservata viene aggiornato solo il contenuto di riferimento,
+     * altrimenti il controllo precedente viene fermato. Anche un file non valido viene osservato, in modo da rilevare quando viene corretto.
+     *
+     * @param keyMaterial Contenuto del file da osservare.
+     */
+    public synchronized void watch(KeyMaterial keyMaterial) {
+        if (keyMaterial == null || keyMaterial.getPath() == null) {
+            stop();
+            return;
+        }
+        this.keyMaterial = keyMaterial;
+        Path dir = Paths.get(keyMaterial.getPath()).toAbsolutePath().getParent();
+        if (thread != null && dir.equals(directory)) return;
+        stop();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            stop();
+            return;
+        }
+        directory = dir;
+        final WatchService service = watchService;
+        thread = new Thread(() -> run(service), "Thread-ControlloFile");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ferma il controllo del file, se attivo.
+     */
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (thread != null) thread.interrupt();
+        watchService = null;
+        thread = null;
+        directory = null;
+    }
+
+    /**
+     * Ciclo del thread di controllo: attende un evento sul file, raggruppa gli eventi successivi e verifica il file.
+     *
+     * @param service Servizio da cui leggere gli eventi, chiuso da {@link #stop()}.
+     */
+    private void run(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = pollEvents(key);
+                WatchKey next;
+                while ((next = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= pollEvents(next);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //il controllo è stato fermato
+        }
+    }
+
+    /**
+     * Legge gli eventi di una chiave e la rende di nuovo disponibile.
+     *
+     * @param key Chiave con gli eventi della cartella.
+     * @return true se almeno un evento riguarda il file osservato.
+     */
+    private boolean pollEvents(WatchKey key) {
+        final KeyMaterial current = keyMaterial;
+        final Path name = Paths.get(current.getPath()).getFileName();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            //con OVERFLOW alcuni eventi sono andati persi, quindi il file viene verificato comunque
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) changed = true;
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Legge di nuovo il file se è cambiato e invoca la callback con il nuovo contenuto.
+     */
+    private void reload() {
+        final KeyMaterial current = keyMaterial;
+        if (!current.isChanged()) return;
+        KeyMaterial updated = KeyMaterial.parse(current.getPath(), current.getModInverse());
+        synchronized (this) {
+            //il file osservato è stato cambiato durante la lettura
+            if (keyMaterial != current) return;
+            keyMaterial = updated;
+        }
+        onChange.accept(updated);
+    }
+}
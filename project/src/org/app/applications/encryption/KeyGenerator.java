@@ -0,0 +1,197 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.encryption;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.app.applications.primality.BailliePSWStrategy;
+import org.app.applications.primality.PrimalityStrategy;
+import org.app.applications.primality.SmallPrimes;
+
+/**
+ * Classe che genera chiavi RSA con numeri primi casuali della dimensione richiesta, utilizzando i metodi di calcolo
+ * del modulo {@code org.app.applications.primality}.
+ * <p>
+ * Ogni ricerca parte da un numero dispari casuale con i due bit più significativi a 1, così il prodotto di due numeri primi
+ * ha esattamente la dimensione richiesta, ed esamina una finestra di {@link #SIEVE_WINDOW} numeri dispari consecutivi.
+ * La finestra viene prima setacciata con i numeri primi di {@link SmallPrimes} minori di {@link #SIEVE_BOUND}, calcolando un solo resto per numero primo,
+ * e solo i candidati rimasti vengono verificati con la strategia di primalità, di default Baillie-PSW.
+ * Con più thread ogni thread esamina finestre diverse e il primo numero primo trovato termina la ricerca.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class KeyGenerator {
+
+    /** Dimensione di default del modulo n in bit. */
+    public static final int DEFAULT_BITS = 1024;
+
+    /** Dimensione minima del modulo n in bit. */
+    public static final int MIN_BITS = 32;
+
+    /** Esponente pubblico di default. */
+    public static final BigInteger DEFAULT_E = BigInteger.valueOf(65537);
+
+    /** Limite escluso dei numeri primi con cui viene setacciata una finestra. */
+    private static final int SIEVE_BOUND = 2048;
+
+    /** Numero di candidati dispari consecutivi di una finestra. */
+    private static final int SIEVE_WINDOW = 1024;
+
+    /** Strategia con cui vengono verificati i candidati che superano il setaccio. */
+    private final PrimalityStrategy strategy;
+
+    /** Generatore dei numeri casuali di partenza. */
+    private final SecureRandom random = new SecureRandom();
+
+    /** Numero di thread utilizzati dalla ricerca. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Costruttore che verifica i candidati con il test di Baillie-PSW.
+     */
+    public KeyGenerator() {
+        this(new BailliePSWStrategy());
+    }
+
+    /**
+     * Costruttore che verifica i candidati con la strategia data.
+     *
+     * @param strategy Strategia di primalità con cui verificare i candidati.
+     */
+    public KeyGenerator(PrimalityStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Imposta il numero di thread utilizzati dalla ricerca.
+     *
+     * @param parallelism Numero di thread, almeno 1. Con 1 la ricerca avviene sul thread corrente.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Genera una chiave RSA con il modulo della dimensione data e l'esponente pubblico {@link #DEFAULT_E}.
+     *
+     * @param bits Dimensione del modulo n in bit, almeno {@link #MIN_BITS}.
+     * @return La chiave generata e verificata.
+     * @throws InterruptedException se il thread viene interrotto durante la ricerca.
+     */
+    public RsaKey generate(int bits) throws InterruptedException {
+        return generate(bits, DEFAULT_E);
+    }
+
+    /**
+     * Genera una chiave RSA con il modulo della dimensione data e l'esponente pubblico dato.
+     *
+     * @param bits Dimensione del modulo n in bit, almeno {@link #MIN_BITS}.
+     * @param e Esponente pubblico dispari maggiore di 2.
+     * @return La chiave generata e verificata.
+     * @throws InterruptedException se il thread viene interrotto durante la ricerca.
+     */
+    public RsaKey generate(int bits, BigInteger e) throws InterruptedException {
+        if (bits < MIN_BITS) throw new IllegalArgumentException("dimensione minima " + MIN_BITS + " bit");
+        if (!e.testBit(0) || e.compareTo(BigInteger.valueOf(2)) <= 0) throw new IllegalArgumentException("e deve essere dispari e maggiore di 2");
+        BigInteger p = generatePrime(bits / 2, e);
+        BigInteger q;
+        do {
+            q = generatePrime(bits - bits / 2, e);
+        } while (q.equals(p));
+        return new RsaKey(p, q, e);
+    }
+
+    /**
+     * Genera un numero primo casuale della dimensione data per cui p - 1 è primo con l'esponente pubblico.
+     *
+     * @param bits Dimensione del numero primo in bit, almeno {@link #MIN_BITS} / 2.
+     * @param e Esponente pubblico.
+     * @return Il numero primo generato.
+     * @throws InterruptedException se il thread viene interrotto durante la ricerca.
+     */
+    public BigInteger generatePrime(int bits, BigInteger e) throws InterruptedException {
+        if (bits < MIN_BITS / 2) throw new IllegalArgumentException("dimensione minima " + MIN_BITS / 2 + " bit");
+        final AtomicBoolean found = new AtomicBoolean(false);
+        Callable<BigInteger> search = () -> {
+            while (!found.get()) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+                BigInteger prime = searchWindow(bits, e);
+                if (prime != null) {
+                    found.set(true);
+                    return prime;
+                }
+            }
+            throw new InterruptedException();
+        };
+        if (parallelism <= 1) {
+            try {
+                return search.call();
+            } catch (InterruptedException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        List<Callable<BigInteger>> searches = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) searches.add(search);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invokeAny(searches);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            found.set(true);
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Esamina una finestra di {@link #SIEVE_WINDOW} numeri dispari consecutivi a partire da un numero casuale.
+     *
+     * @param bits Dimensione dei candidati in bit.
+     * @param e Esponente pubblico.
+     * @return Il primo numero primo della finestra che soddisfa le condizioni, null se non esiste.
+     */
+    private BigInteger searchWindow(int bits, BigInteger e) {
+        BigInteger start = new BigInteger(bits, random).setBit(bits - 1).setBit(bits - 2).setBit(0);
+        boolean[] composite = new boolean[SIEVE_WINDOW];
+        for (int p : SmallPrimes.upTo(SIEVE_BOUND)) {
+            if (p >= SIEVE_BOUND) break;
+            if (p == 2) continue;
+            //il candidato start + 2k è divisibile per p se k = -start / 2 modulo p
+            final int r = start.mod(BigInteger.valueOf(p)).intValue();
+            int k = (int) ((long) ((p - r) % p) * ((p + 1) / 2) % p);
+            for (; k < SIEVE_WINDOW; k += p) composite[k] = true;
+        }
+        for (int k = 0; k < SIEVE_WINDOW; k++) {
+            if (composite[k]) continue;
+            if (Thread.currentThread().isInterrupted()) return null;
+            BigInteger candidate = start.add(BigInteger.valueOf(2L * k));
+            if (candidate.bitLength() != bits) return null;
+            if (!candidate.subtract(BigInteger.ONE).gcd(e).equals(BigInteger.ONE)) continue;
+            if (strategy.isPrime(candidate)) return candidate;
+        }
+        return null;
+    }
+}
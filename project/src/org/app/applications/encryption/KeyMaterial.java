@@ -0,0 +1,229 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.encryption;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Classe che rappresenta il contenuto di un file di chiavi letto una sola volta.
+ * <p>
+ * {@link #parse(String, boolean)} legge il file a blocchi di byte e riconosce le righe numeriche con un semplice
+ * controllo delle cifre, senza espressioni regolari. Le righe valide sono quelle composte solo da cifre, lunghe almeno 2 cifre
+ * e, se il modulo inverso non è attivo, non più lunghe di {@link #MAX_DIGITS_WITHOUT_MOD_INVERSE} cifre.
+ * La verifica del file, la scelta delle righe e la costruzione di {@link TestEncryption} utilizzano la stessa istanza.
+ * I file di almeno {@link #MAPPED_THRESHOLD} byte vengono letti con {@link MappedKeyFile}, che non carica le righe in memoria
+ * ma le legge dal file quando vengono richieste.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class KeyMaterial {
+
+    /** Numero di righe valide necessarie per p, q ed e. */
+    public static final int REQUIRED_ROWS = 3;
+
+    /** Numero minimo di cifre di una riga valida. */
+    public static final int MIN_DIGITS = 2;
+
+    /** Numero massimo di cifre di una riga valida se il modulo inverso non è attivo. */
+    public static final int MAX_DIGITS_WITHOUT_MOD_INVERSE = String.valueOf(Integer.MAX_VALUE).length() - 1;
+
+    /** Dimensione del buffer di lettura. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Dimensione in byte da cui il file viene letto con {@link MappedKeyFile} invece di essere copiato in memoria. */
+    public static final long MAPPED_THRESHOLD = 1L << 24;
+
+    /** Percorso del file letto. */
+    private final String path;
+
+    /** Indica se il modulo inverso era attivo durante la lettura. */
+    private final boolean modInverse;
+
+    /** Righe valide nell'ordine del file. */
+    private final List<String> rows;
+
+    /** Data di ultima modifica del file al momento della lettura, 0 se il file non esiste. */
+    private final long lastModified;
+
+    /** Dimensione del file in byte al momento della lettura, 0 se il file non esiste. */
+    private final long size;
+
+    /**
+     * Costruttore privato, le istanze sono create da {@link #parse(String, boolean)}.
+     *
+     * @param path Percorso del file letto.
+     * @param modInverse Indica se il modulo inverso era attivo durante la lettura.
+     * @param rows Righe valide nell'ordine del file.
+     * @param lastModified Data di ultima modifica del file al momento della lettura.
+     * @param size Dimensione del file in byte al momento della lettura.
+     */
+    private KeyMaterial(String path, boolean modInverse, List<String> rows, long lastModified, long size) {
+        this.path = path;
+        this.modInverse = modInverse;
+        this.rows = Collections.unmodifiableList(rows);
+        this.lastModified = lastModified;
+        this.size = size;
+    }
+
+    /**
+     * Legge il file una sola volta e raccoglie le righe valide.
+     * Un percorso nullo, senza estensione .txt, inesistente o illeggibile produce un'istanza senza righe.
+     *
+     * @param path Percorso del file da leggere.
+     * @param modInverse Se true, le righe possono avere qualsiasi lunghezza, altrimenti al massimo {@link #MAX_DIGITS_WITHOUT_MOD_INVERSE} cifre.
+     * @return Il contenuto del file.
+     */
+    public static KeyMaterial parse(String path, boolean modInverse) {
+        List<String> rows = new ArrayList<>();
+        if (path == null || !path.endsWith(".txt")) return new KeyMaterial(path, modInverse, rows, 0, 0);
+        File file = new File(path);
+        if (!file.exists() || !file.isFile()) return new KeyMaterial(path, modInverse, rows, 0, 0);
+        //data e dimensione sono lette prima del contenuto, così una modifica durante la lettura viene rilevata come cambiamento
+        final long lastModified = file.lastModified();
+        final long size = file.length();
+        final int maxDigits = modInverse ? Integer.MAX_VALUE : MAX_DIGITS_WITHOUT_MOD_INVERSE;
+        if (size >= MAPPED_THRESHOLD) {
+            try {
+                return new KeyMaterial(path, modInverse, MappedKeyFile.open(path, maxDigits).asList(), lastModified, size);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return new KeyMaterial(path, modInverse, rows, lastModified, size);
+            }
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            StringBuilder line = new StringBuilder();
+            boolean digitsOnly = true;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    final byte b = buffer[i];
+                    if (b == '\n' || b == '\r') {
+                        addRow(rows, line, digitsOnly, maxDigits);
+                        line.setLength(0);
+                        digitsOnly = true;
+                    } else if (digitsOnly) {
+                        if (b >= '0' && b <= '9' && line.length() < maxDigits) {
+                            line.append((char) b);
+                        } else {
+                            //la riga non è valida, i byte restanti fino al ritorno a capo vengono ignorati
+                            digitsOnly = false;
+                        }
+                    }
+                }
+            }
+            addRow(rows, line, digitsOnly, maxDigits);
+        } catch (IOException e) {
+            e.printStackTrace();
+            rows.clear();
+        }
+        return new KeyMaterial(path, modInverse, rows, lastModified, size);
+    }
+
+    /**
+     * Aggiunge la riga appena terminata se è valida.
+     *
+     * @param rows Righe valide.
+     * @param line Cifre della riga.
+     * @param digitsOnly Indica se la riga contiene solo cifre.
+     * @param maxDigits Numero massimo di cifre.
+     */
+    private static void addRow(List<String> rows, StringBuilder line, boolean digitsOnly, int maxDigits) {
+        if (digitsOnly && line.length() >= MIN_DIGITS && line.length() <= maxDigits) {
+            rows.add(line.toString());
+        }
+    }
+
+    /**
+     * Verifica se il file contiene abbastanza righe valide per una chiave.
+     *
+     * @return true se il file contiene almeno {@link #REQUIRED_ROWS} righe valide.
+     */
+    public boolean isValid() {
+        return rows.size() >= REQUIRED_ROWS;
+    }
+
+    /**
+     * Restituisce le righe valide nell'ordine del file.
+     *
+     * @return Le righe valide, in una lista non modificabile.
+     */
+    public List<String> getRows() {
+        return rows;
+    }
+
+    /**
+     * Restituisce il percorso del file letto.
+     *
+     * @return Il percorso del file.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Restituisce se il modulo inverso era attivo durante la lettura.
+     *
+     * @return true se il modulo inverso era attivo.
+     */
+    public boolean getModInverse() {
+        return modInverse;
+    }
+
+    /**
+     * Verifica se il file è cambiato dalla lettura, confrontando data di ultima modifica e dimensione.
+     *
+     * @return true se il file è stato modificato, creato o eliminato dopo la lettura.
+     */
+    public boolean isChanged() {
+        if (path == null || !path.endsWith(".txt")) return false;
+        File file = new File(path);
+        final boolean exists = file.exists() && file.isFile();
+        return (exists ? file.lastModified() : 0) != lastModified || (exists ? file.length() : 0) != size;
+    }
+
+    /**
+     * Estrae casualmente {@link #REQUIRED_ROWS} righe valide da utilizzare come p, q ed e.
+     *
+     * @return Un array con le righe estratte, o null se il file non è valido.
+     */
+    public String[] selectRows() {
+        if (!isValid()) return null;
+        String[] selectedRows = new String[REQUIRED_ROWS];
+        Random random = new Random();
+        for (int i = 0; i < REQUIRED_ROWS; i++) {
+            selectedRows[i] = rows.get(random.nextInt(rows.size()));
+        }
+        return selectedRows;
+    }
+
+    /**
+     * Crea l'istanza di {@link TestEncryption} con righe estratte casualmente.
+     *
+     * @return L'istanza con la chiave del file, o null se il file non è valido.
+     */
+    public TestEncryption newEncryption() {
+        String[] selectedRows = selectRows();
+        if (selectedRows == null) return null;
+        return new TestEncryption(modInverse, selectedRows[0], selectedRows[1], selectedRows[2]);
+    }
+}
@@ -0,0 +1,386 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.encryption;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Classe che legge le righe numeriche di un file molto grande, ad esempio un elenco di numeri primi salvato da
+ * {@link org.app.applications.primality.SavePrimality}, attraverso {@link MappedByteBuffer}.
+ * <p>
+ * Il file viene mappato in regioni di {@link #REGION_SIZE} byte e le righe vengono riconosciute direttamente sui byte mappati,
+ * senza creare una stringa per riga. Durante la prima scansione viene salvata solo la posizione di una riga valida ogni
+ * {@link #INDEX_STRIDE}, quindi la k-esima riga si raggiunge partendo dalla posizione salvata più vicina e la memoria occupata
+ * è di pochi byte ogni {@link #INDEX_STRIDE} righe. Le regole di validità delle righe sono le stesse di {@link KeyMaterial}.
+ * </p>
+ * <p>
+ * Durante la stessa scansione le posizioni di tutte le righe valide vengono scritte nel file indice accanto al file
+ * (con estensione {@link #INDEX_SUFFIX}), insieme a data di ultima modifica, dimensione e numero massimo di cifre.
+ * Alle aperture successive, se questi valori non sono cambiati, l'indice viene mappato senza scansionare il file
+ * e la k-esima riga si legge in tempo costante. Se l'indice non può essere scritto viene usato solo l'indice in memoria.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class MappedKeyFile {
+
+    /** Numero di bit della dimensione di una regione mappata. */
+    private static final int REGION_BITS = 30;
+
+    /** Dimensione in byte di una regione mappata. */
+    private static final int REGION_SIZE = 1 << REGION_BITS;
+
+    /** Numero di righe valide tra due posizioni salvate. */
+    public static final int INDEX_STRIDE = 1024;
+
+    /** Estensione aggiunta al percorso del file per ottenere il percorso del file indice. */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /** Valore iniziale del file indice, "FARIDX01" in ASCII. */
+    private static final long INDEX_MAGIC = 0x4641524944583031L;
+
+    /** Dimensione in byte dell'intestazione del file indice: valore iniziale, data, dimensione, cifre massime e numero di righe. */
+    private static final int INDEX_HEADER = 5 * Long.BYTES;
+
+    /** Regioni mappate del file, nell'ordine. */
+    private final MappedByteBuffer[] regions;
+
+    /** Dimensione del file in byte. */
+    private final long size;
+
+    /** Numero massimo di cifre di una riga valida. */
+    private final int maxDigits;
+
+    /** Posizione di una riga valida ogni {@link #INDEX_STRIDE}. */
+    private long[] index = new long[16];
+
+    /** Regioni mappate del file indice, null se il file indice non è disponibile. */
+    private MappedByteBuffer[] offsets;
+
+    /** Numero di righe valide. */
+    private long count;
+
+    /**
+     * Costruttore privato, le istanze sono create da {@link #open(String, int)}.
+     *
+     * @param regions Regioni mappate del file.
+     * @param size Dimensione del file in byte.
+     * @param maxDigits Numero massimo di cifre di una riga valida.
+     */
+    private MappedKeyFile(MappedByteBuffer[] regions, long size, int maxDigits) {
+        this.regions = regions;
+        this.size = size;
+        this.maxDigits = maxDigits;
+    }
+
+    /**
+     * Mappa il file e il suo file indice, se è aggiornato. Altrimenti scansiona il file una volta per contare le righe valide,
+     * salvare le posizioni dell'indice in memoria e scrivere un nuovo file indice.
+     *
+     * @param path Percorso del file.
+     * @param maxDigits Numero massimo di cifre di una riga valida.
+     * @return Il file mappato.
+     * @throws IOException se il file non può essere aperto o mappato.
+     */
+    public static MappedKeyFile open(String path, int maxDigits) throws IOException {
+        final Path file = Paths.get(path);
+        //data e dimensione sono lette prima del contenuto, così una modifica durante la scansione rende l'indice non aggiornato
+        final long lastModified = Files.getLastModifiedTime(file).toMillis();
+        MappedByteBuffer[] regions;
+        long size;
+        //la mappatura resta valida anche dopo la chiusura del canale
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            regions = map(channel, size);
+        }
+        MappedKeyFile keyFile = new MappedKeyFile(regions, size, maxDigits);
+        final Path indexFile = Paths.get(path + INDEX_SUFFIX);
+        if (!keyFile.loadIndex(indexFile, lastModified)) {
+            keyFile.buildIndex(indexFile, lastModified);
+        }
+        return keyFile;
+    }
+
+    /**
+     * Mappa un file in regioni di {@link #REGION_SIZE} byte.
+     *
+     * @param channel Canale del file.
+     * @param size Dimensione del file.
+     * @return Le regioni mappate.
+     * @throws IOException se il file non può essere mappato.
+     */
+    private static MappedByteBuffer[] map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer[] mapped = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+        for (int i = 0; i < mapped.length; i++) {
+            final long position = (long) i * REGION_SIZE;
+            mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+        }
+        return mapped;
+    }
+
+    /**
+     * Mappa il file indice se corrisponde alla data, alla dimensione e al numero massimo di cifre del file.
+     *
+     * @param indexFile Percorso del file indice.
+     * @param lastModified Data di ultima modifica del file.
+     * @return true se il file indice è aggiornato ed è stato mappato.
+     */
+    private boolean loadIndex(Path indexFile, long lastModified) {
+        if (!Files.isRegularFile(indexFile)) return false;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER);
+            while (header.hasRemaining() && channel.read(header) != -1);
+            if (header.hasRemaining()) return false;
+            header.flip();
+            if (header.getLong() != INDEX_MAGIC || header.getLong() != lastModified || header.getLong() != size || header.getLong() != maxDigits) return false;
+            final long rows = header.getLong();
+            if (rows < 0 || channel.size() != INDEX_HEADER + rows * Long.BYTES) return false;
+            offsets = map(channel, channel.size());
+            count = rows;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Conta le righe valide, salva la posizione di una riga ogni {@link #INDEX_STRIDE} e scrive le posizioni di tutte le righe nel file indice.
+     * Il file indice viene scritto in un file temporaneo e poi rinominato, quindi non è mai letto a metà.
+     *
+     * @param indexFile Percorso del file indice.
+     * @param lastModified Data di ultima modifica del file.
+     */
+    private void buildIndex(Path indexFile, long lastModified) {
+        Path temporary = null;
+        DataOutputStream out = null;
+        try {
+            temporary = Files.createTempFile(indexFile.toAbsolutePath().getParent(), indexFile.getFileName().toString(), ".tmp");
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+            //il numero di righe viene scritto al termine della scansione
+            out.writeLong(INDEX_MAGIC);
+            out.writeLong(lastModified);
+            out.writeLong(size);
+            out.writeLong(maxDigits);
+            out.writeLong(0);
+        } catch (IOException e) {
+            //la cartella non è scrivibile, viene usato solo l'indice in memoria
+            out = close(out, temporary);
+        }
+        long position = 0;
+        while (position < size) {
+            final long end = scanLine(position);
+            if (end >= 0) {
+                if (count % INDEX_STRIDE == 0) {
+                    final int slot = (int) (count / INDEX_STRIDE);
+                    if (slot == index.length) index = Arrays.copyOf(index, slot * 2);
+                    index[slot] = position;
+                }
+                if (out != null) {
+                    try {
+                        out.writeLong(position);
+                    } catch (IOException e) {
+                        out = close(out, temporary);
+                    }
+                }
+                count++;
+            }
+            position = lineEnd(end) + 1;
+        }
+        if (out == null) return;
+        try {
+            out.close();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer rows = ByteBuffer.allocate(Long.BYTES).putLong(count);
+                rows.flip();
+                channel.write(rows, INDEX_HEADER - Long.BYTES);
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            close(null, temporary);
+            return;
+        }
+        loadIndex(indexFile, lastModified);
+    }
+
+    /**
+     * Chiude e cancella un file indice non completato.
+     *
+     * @param out Flusso del file indice, può essere null.
+     * @param temporary Percorso del file temporaneo, può essere null.
+     * @return null, da assegnare al flusso.
+     */
+    private static DataOutputStream close(DataOutputStream out, Path temporary) {
+        try {
+            if (out != null) out.close();
+            if (temporary != null) Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Restituisce il numero di righe valide.
+     *
+     * @return Il numero di righe valide.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Restituisce la k-esima riga valida, in tempo costante con il file indice,
+     * altrimenti scansionando al massimo {@link #INDEX_STRIDE} righe dalla posizione salvata più vicina.
+     *
+     * @param k Indice della riga valida, da 0 a {@link #getCount()} escluso.
+     * @return Le cifre della riga.
+     * @throws IndexOutOfBoundsException se l'indice non è valido.
+     */
+    public String getRow(long k) {
+        if (k < 0 || k >= count) throw new IndexOutOfBoundsException("riga " + k + " di " + count);
+        if (offsets != null) {
+            //l'intestazione e le regioni hanno dimensioni multiple di 8 byte, quindi una posizione non è mai divisa tra due regioni
+            final long at = INDEX_HEADER + k * Long.BYTES;
+            final long start = offsets[(int) (at >>> REGION_BITS)].getLong((int) at & (REGION_SIZE - 1));
+            return read(start, lineEnd(scanLine(start)));
+        }
+        long position = index[(int) (k / INDEX_STRIDE)];
+        long skip = k % INDEX_STRIDE;
+        while (true) {
+            final long end = scanLine(position);
+            if (end >= 0) {
+                if (skip == 0) return read(position, end);
+                skip--;
+            }
+            position = lineEnd(end) + 1;
+        }
+    }
+
+    /**
+     * Restituisce le righe valide come lista non modificabile con accesso diretto tramite {@link #getRow(long)}.
+     * Lo scorrimento della lista legge il file in sequenza. Se le righe sono più di {@link Integer#MAX_VALUE}
+     * la lista contiene solo le prime {@link Integer#MAX_VALUE}.
+     *
+     * @return Le righe valide.
+     */
+    public List<String> asList() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int k) {
+                return getRow(k);
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(count, Integer.MAX_VALUE);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private long position = 0;
+                    private int returned = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return returned < size();
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        while (true) {
+                            final long start = position;
+                            final long end = scanLine(start);
+                            position = lineEnd(end) + 1;
+                            if (end >= 0) {
+                                returned++;
+                                return read(start, end);
+                            }
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Scansiona una riga a partire dal suo primo byte.
+     *
+     * @param position Posizione del primo byte della riga.
+     * @return La posizione del ritorno a capo, o la fine del file, se la riga è valida,
+     * altrimenti la stessa posizione codificata come {@code -posizione - 1}.
+     */
+    private long scanLine(long position) {
+        boolean digitsOnly = true;
+        long end = position;
+        while (end < size) {
+            final byte b = get(end);
+            if (b == '\n' || b == '\r') break;
+            if (b < '0' || b > '9') digitsOnly = false;
+            end++;
+        }
+        final long length = end - position;
+        return (digitsOnly && length >= KeyMaterial.MIN_DIGITS && length <= maxDigits) ? end : -end - 1;
+    }
+
+    /**
+     * Decodifica il risultato di {@link #scanLine(long)}.
+     *
+     * @param scan Risultato di {@link #scanLine(long)}.
+     * @return La posizione del ritorno a capo o della fine del file.
+     */
+    private static long lineEnd(long scan) {
+        return scan >= 0 ? scan : -scan - 1;
+    }
+
+    /**
+     * Legge i byte di una riga.
+     *
+     * @param start Posizione del primo byte.
+     * @param end Posizione successiva all'ultimo byte.
+     * @return La riga come stringa.
+     */
+    private String read(long start, long end) {
+        byte[] digits = new byte[(int) (end - start)];
+        for (int i = 0; i < digits.length; i++) digits[i] = get(start + i);
+        return new String(digits, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Restituisce il byte in una posizione del file.
+     *
+     * @param position Posizione nel file.
+     * @return Il byte.
+     */
+    private byte get(long position) {
+        return regions[(int) (position >>> REGION_BITS)].get((int) position & (REGION_SIZE - 1));
+    }
+}
@@ -12,19 +12,15 @@
 
 package org.app.applications.encryption;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
 
 
 /**
  * Classe che gestisce la lettura di un file di testo contenente dati numerici.
  * Filtra le righe secondo specifiche condizioni e offre funzionalità per estrarre
  * o verificare i dati numerici contenuti nel file.
+ * Il file viene letto una sola volta con {@link KeyMaterial#parse(String, boolean)} alla prima richiesta,
+ * e tutti i metodi utilizzano lo stesso risultato.
  * @author Vittorio Piotti
  * @version 1.0
  * @since 16-10-2023
@@ -37,6 +33,9 @@ public class ReadFile {
     /** Indica se il modulo inverso è attivo per il filtraggio dei dati. */
     private boolean modInverse;
 
+    /** Contenuto del file, letto alla prima richiesta. */
+    private KeyMaterial keyMaterial;
+
     /**
      * Costruttore della classe ReadFile.
      *
@@ -48,39 +47,30 @@ public class ReadFile {
         this.modInverse = modInverse;
     }
 
+    /**
+     * Restituisce il contenuto del file, leggendolo alla prima richiesta.
+     *
+     * @return Il contenuto del file.
+     */
+    public KeyMaterial getKeyMaterial() {
+        if (keyMaterial == null) keyMaterial = KeyMaterial.parse(path, modInverse);
+        return keyMaterial;
+    }
+
     /**
      * Legge il file e restituisce i dati numerici filtrati.
      *
-     * @return Una stringa con i dati numerici filtrati, o null se il file non esiste o si verifica un errore.
+     * @return Una stringa con i dati numerici filtrati, o null se il file non esiste.
      */
     public String readFile() {
-        StringBuilder numericData = new StringBuilder();
-
         if (!fileExists(path)) {
             return null;
         }
-
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String line;
-
-            while ((line = br.readLine()) != null) {
-                if (line.matches("^\\d+$")  && line.length() >= 2) {
-                    if(modInverse == false){
-                        if(line.length() <= String.valueOf(Integer.MAX_VALUE).length() - 1) {
-                            numericData.append(line);
-                            numericData.append("\n");
-                        }
-                    }else{
-                    numericData.append(line);
-                    numericData.append("\n");
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
+        StringBuilder numericData = new StringBuilder();
+        for (String line : getKeyMaterial().getRows()) {
+            numericData.append(line);
+            numericData.append("\n");
         }
-
         return numericData.toString();
     }
 
@@ -90,80 +80,16 @@ public class ReadFile {
      * @return true se il file contiene almeno 3 righe numeriche valide, altrimenti false.
      */
     public boolean checkFile() {
-        if (this.path == null || !this.path.endsWith(".txt")) {
-            return false;
-        }
-    
-        int count = 0;
-    
-        if (!fileExists(path)) {
-            return false;
-        }
-    
-        try (BufferedReader br = new BufferedReader(new FileReader(this.path))) {
-            String line;
-    
-            while ((line = br.readLine()) != null) {
-                if (line.matches("^\\d+$") && line.length() >= 2) {
-                    if (modInverse == false) {
-                        if (line.length() <= String.valueOf(Integer.MAX_VALUE).length() - 1) {
-                            count++;
-                        }
-                    } else {
-                        count++;
-                    }
-                    if (count >= 3) {
-                        return true;
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
-    
-        return false;
+        return getKeyMaterial().isValid();
     }
     
     /**
-     * Estrae casualmente 3 righe numeriche dal file.
+     * Estrae casualmente 3 righe numeriche valide dal file.
      *
      * @return Un array di 3 stringhe contenenti le righe numeriche estratte, o null se non ci sono abbastanza righe valide.
      */
     public String[] getRows() {
-        // Verifica se il file esiste
-        if (!fileExists(path)) {
-            return null;
-        }
-
-        List<String> numericRows = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String line;
-
-            while ((line = br.readLine()) != null) {
-                if (line.matches("^\\d+$")) {
-                    numericRows.add(line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-
-        if (numericRows.size() < 3) {
-            return null;
-        }
-
-        String[] selectedRows = new String[3];
-        Random random = new Random();
-
-        for (int i = 0; i < 3; i++) {
-            int randomIndex = random.nextInt(numericRows.size());
-            selectedRows[i] = numericRows.get(randomIndex);
-        }
-
-        return selectedRows;
+        return getKeyMaterial().selectRows();
     }
 
     /**
@@ -0,0 +1,110 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.encryption;
+
+import java.math.BigInteger;
+
+/**
+ * Classe che rappresenta una chiave RSA completa: i numeri primi p e q, l'esponente pubblico e,
+ * il modulo n e l'esponente privato d.
+ * La chiave viene verificata alla costruzione, quindi un'istanza ha sempre d inverso di e modulo φ(n).
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class RsaKey {
+
+    /** Primo numero primo della chiave. */
+    private final BigInteger p;
+
+    /** Secondo numero primo della chiave. */
+    private final BigInteger q;
+
+    /** Esponente pubblico. */
+    private final BigInteger e;
+
+    /** Modulo n = p * q. */
+    private final BigInteger n;
+
+    /** Esponente privato, inverso di e modulo φ(n). */
+    private final BigInteger d;
+
+    /**
+     * Costruttore che calcola il modulo e l'esponente privato e verifica la chiave.
+     *
+     * @param p Primo numero primo.
+     * @param q Secondo numero primo, diverso da p.
+     * @param e Esponente pubblico, maggiore di 1 e primo con φ(n).
+     * @throws IllegalArgumentException se p e q coincidono o non sono maggiori di 2, o se e non è invertibile modulo φ(n).
+     */
+    public RsaKey(BigInteger p, BigInteger q, BigInteger e) {
+        BigInteger two = BigInteger.valueOf(2);
+        if (p.compareTo(two) <= 0 || q.compareTo(two) <= 0 || p.equals(q)) {
+            throw new IllegalArgumentException("p e q devono essere distinti e maggiori di 2");
+        }
+        BigInteger phi = p.subtract(BigInteger.ONE).multiply(q.subtract(BigInteger.ONE));
+        if (e.compareTo(BigInteger.ONE) <= 0 || !e.gcd(phi).equals(BigInteger.ONE)) {
+            throw new IllegalArgumentException("e non è invertibile modulo phi(n)");
+        }
+        this.p = p;
+        this.q = q;
+        this.e = e;
+        this.n = p.multiply(q);
+        this.d = e.modInverse(phi);
+    }
+
+    /**
+     * Restituisce il primo numero primo della chiave.
+     *
+     * @return Il numero primo p.
+     */
+    public BigInteger getP() {
+        return p;
+    }
+
+    /**
+     * Restituisce il secondo numero primo della chiave.
+     *
+     * @return Il numero primo q.
+     */
+    public BigInteger getQ() {
+        return q;
+    }
+
+    /**
+     * Restituisce l'esponente pubblico.
+     *
+     * @return L'esponente e.
+     */
+    public BigInteger getE() {
+        return e;
+    }
+
+    /**
+     * Restituisce il modulo.
+     *
+     * @return Il modulo n.
+     */
+    public BigInteger getN() {
+        return n;
+    }
+
+    /**
+     * Restituisce l'esponente privato.
+     *
+     * @return L'esponente d.
+     */
+    public BigInteger getD() {
+        return d;
+    }
+}
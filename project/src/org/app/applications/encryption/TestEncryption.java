@@ -12,18 +12,40 @@
 
 package org.app.applications.encryption;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Classe che implementa la crittografia RSA semplice per cifrare e decifrare messaggi.
  * Fornisce un'opzione per calcolare la chiave privata (d) utilizzando il modulo inverso o
  * un metodo alternativo.
+ * <p>
+ * Se p e q sono numeri primi distinti la decifratura utilizza il teorema cinese del resto:
+ * invece di un elevamento a potenza modulo n vengono calcolati due elevamenti modulo p e modulo q,
+ * con esponenti e moduli di metà dimensione, ricombinati con qInv. La decifratura con l'elevamento
+ * a potenza modulo n resta selezionabile con {@link #setCrt(boolean)} per confrontare i due metodi.
+ * </p>
+ * <p>
+ * Con la modalità a blocchi, selezionabile con {@link #setBlock(boolean)}, il messaggio è convertito in byte UTF-8 e
+ * ogni elevamento a potenza cifra tutti i byte che stanno sotto il modulo invece di un solo carattere.
+ * </p>
+ * <p>
+ * La cifratura carattere per carattere è deterministica, quindi con la cache, selezionabile con {@link #setCache(boolean)},
+ * ogni carattere e ogni numero cifrato già incontrati non vengono ricalcolati. Le tabelle appartengono all'istanza e quindi alla chiave
+ * con cui è costruita, e sono limitate a {@link #CACHE_SIZE} elementi eliminando quelli usati meno di recente.
+ * </p>
  * @author Vittorio Piotti
  * @version 1.0
  * @since 16-10-2023
  */
 public class TestEncryption {
 
+    /** Numero massimo di elementi di ciascuna tabella della cache. */
+    public static final int CACHE_SIZE = 4096;
+
     /** Primo numero primo utilizzato per generare la chiave RSA. */
     private BigInteger p;
 
@@ -39,6 +61,39 @@ public class TestEncryption {
     /** Esponente privato utilizzato per la decrittografia. */
     private BigInteger d;
 
+    /** Esponente privato ridotto modulo p - 1 per la decrittografia con il teorema cinese del resto. */
+    private BigInteger dP;
+
+    /** Esponente privato ridotto modulo q - 1 per la decrittografia con il teorema cinese del resto. */
+    private BigInteger dQ;
+
+    /** Inverso di q modulo p, null se la decrittografia con il teorema cinese del resto non è applicabile. */
+    private BigInteger qInv;
+
+    /** Numero di passi dell'algoritmo di Euclide esteso eseguiti per calcolare d, 0 se d è calcolato con il modulo inverso. */
+    private int euclidSteps = 0;
+
+    /** Numero di iterazioni che la ricerca lineare di k avrebbe eseguito per calcolare d, null se d è calcolato con il modulo inverso. */
+    private BigInteger linearIterations;
+
+    /** Numero di byte del messaggio cifrati in un blocco, 0 se il modulo è troppo piccolo per la modalità a blocchi. */
+    private int blockSize;
+
+    /** Se true, cifra e decifra a blocchi di byte quando applicabile, altrimenti un carattere alla volta. */
+    private boolean block = false;
+
+    /** Se true, la cifratura e la decifratura carattere per carattere utilizzano le tabelle della cache. */
+    private boolean cache = false;
+
+    /** Tabella della cache dai caratteri ai numeri cifrati, riempita alla prima cifratura di ogni carattere. */
+    private final Map<Character, String> encryptCache = newCache();
+
+    /** Tabella della cache dai numeri cifrati ai caratteri, riempita alla prima decifratura di ogni numero. */
+    private final Map<String, Character> decryptCache = newCache();
+
+    /** Se true, decifra con il teorema cinese del resto quando applicabile, altrimenti con l'elevamento a potenza modulo n. */
+    private boolean crt = true;
+
     /**
      * Costruttore per inizializzare i parametri RSA e calcolare la chiave privata (d).
      *
@@ -59,32 +114,144 @@ public class TestEncryption {
             this.d = calculateD(this.e, phi_n);  
 
         }
+        initCrt();
+        // il byte iniziale 0x01 preserva gli zeri del blocco e richiede un bit oltre ai byte del messaggio
+        this.blockSize = Math.max(0, (this.n.bitLength() - 2) / 8);
+
+    }
+
+    /**
+     * Costruttore che utilizza una chiave già calcolata e verificata, ad esempio generata da {@link KeyGenerator}.
+     *
+     * @param key La chiave RSA.
+     */
+    public TestEncryption(RsaKey key) {
+        this.p = key.getP();
+        this.q = key.getQ();
+        this.e = key.getE();
+        this.n = key.getN();
+        this.d = key.getD();
+        initCrt();
+        this.blockSize = Math.max(0, (this.n.bitLength() - 2) / 8);
+    }
+
+    /**
+     * Calcola i parametri per la decrittografia con il teorema cinese del resto.
+     * I parametri sono calcolati solo se p e q sono numeri primi dispari distinti, perché solo in questo caso
+     * la riduzione degli esponenti modulo p - 1 e q - 1 restituisce lo stesso risultato dell'elevamento modulo n.
+     */
+    private void initCrt() {
+        BigInteger two = BigInteger.valueOf(2);
+        if (p.compareTo(two) <= 0 || q.compareTo(two) <= 0 || p.equals(q)) return;
+        if (!p.isProbablePrime(64) || !q.isProbablePrime(64)) return;
+        this.dP = this.d.mod(this.p.subtract(BigInteger.ONE));
+        this.dQ = this.d.mod(this.q.subtract(BigInteger.ONE));
+        this.qInv = this.q.modInverse(this.p);
+    }
+
+    /**
+     * Seleziona il metodo di decrittografia.
+     *
+     * @param crt Se true, utilizza il teorema cinese del resto quando applicabile, altrimenti l'elevamento a potenza modulo n.
+     */
+    public void setCrt(boolean crt) {
+        this.crt = crt;
+    }
+
+    /**
+     * Seleziona la modalità di cifratura e decifratura.
+     *
+     * @param block Se true, utilizza i blocchi di byte quando il modulo lo permette, altrimenti un carattere alla volta.
+     */
+    public void setBlock(boolean block) {
+        this.block = block;
+    }
 
+    /**
+     * Attiva o disattiva la cache della cifratura e decifratura carattere per carattere.
+     *
+     * @param cache Se true, i caratteri e i numeri cifrati già incontrati non vengono ricalcolati.
+     */
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Restituisce il numero di byte del messaggio cifrati in un blocco con la chiave corrente.
+     *
+     * @return Il numero di byte per blocco, 0 se il modulo è troppo piccolo per la modalità a blocchi.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Verifica se la decrittografia con il teorema cinese del resto è applicabile alla chiave corrente.
+     *
+     * @return true se p e q sono numeri primi dispari distinti.
+     */
+    public boolean hasCrt() {
+        return qInv != null;
     }
 
     /**
      * Metodo privato per calcolare la chiave privata (d) senza utilizzare il modulo inverso.
+     * <p>
+     * La chiave d è l'inverso di e modulo φ(n) ed è calcolata con l'algoritmo di Euclide esteso in O(log n) passi,
+     * invece di cercare il primo k = 1, 2, 3... per cui k * φ(n) + 1 è divisibile per e. Il metodo registra il numero
+     * di passi eseguiti e il numero di iterazioni della ricerca lineare, ricavato da d come k = (e * d - 1) / φ(n),
+     * per confrontare i due metodi senza eseguire la ricerca.
+     * </p>
      *
      * @param e Esponente pubblico.
      * @param phi_n Funzione di Eulero (φ(n)).
      * @return La chiave privata (d) calcolata.
+     * @throws ArithmeticException se e e φ(n) non sono primi tra loro, caso in cui la ricerca lineare non termina.
      */
     private BigInteger calculateD(BigInteger e, BigInteger phi_n) {
-        BigInteger d = BigInteger.ZERO;
-        BigInteger k = BigInteger.ONE;
-
-        while (true) {
-            BigInteger numerator = k.multiply(phi_n).add(BigInteger.ONE);
-            if (numerator.mod(e).equals(BigInteger.ZERO)) {
-                d = numerator.divide(e);
-                break;
-            }
-            k = k.add(BigInteger.ONE);
+        BigInteger r0 = phi_n;
+        BigInteger r1 = e.mod(phi_n);
+        BigInteger t0 = BigInteger.ZERO;
+        BigInteger t1 = BigInteger.ONE;
+        euclidSteps = 0;
+
+        while (r1.signum() != 0) {
+            BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            BigInteger t = t0.subtract(qr[0].multiply(t1));
+            t0 = t1;
+            t1 = t;
+            euclidSteps++;
+        }
+        if (!r0.equals(BigInteger.ONE)) {
+            throw new ArithmeticException("e non è invertibile modulo phi(n)");
         }
 
+        BigInteger d = t0.mod(phi_n);
+        if (d.signum() == 0) d = phi_n;
+        linearIterations = e.multiply(d).subtract(BigInteger.ONE).divide(phi_n);
         return d;
     }
 
+    /**
+     * Restituisce il numero di passi dell'algoritmo di Euclide esteso eseguiti per calcolare la chiave privata.
+     *
+     * @return Il numero di passi, 0 se la chiave è calcolata con il modulo inverso.
+     */
+    public int getEuclidSteps() {
+        return euclidSteps;
+    }
+
+    /**
+     * Restituisce il numero di iterazioni che la ricerca lineare di k avrebbe eseguito per calcolare la chiave privata.
+     *
+     * @return Il numero di iterazioni, null se la chiave è calcolata con il modulo inverso.
+     */
+    public BigInteger getLinearIterations() {
+        return linearIterations;
+    }
+
     /**
      * Cifra un messaggio di testo in chiaro utilizzando la chiave pubblica RSA.
      *
@@ -92,8 +259,51 @@ public class TestEncryption {
      * @return Il messaggio cifrato, rappresentato come una stringa di numeri separati da spazi.
      */
     public String encrypt(String plaintext) {
+        if (isBlock()) {
+            byte[] bytes = plaintext.getBytes(StandardCharsets.UTF_8);
+            return encryptBlocks(bytes, 0, bytes.length);
+        }
+        return encryptChars(plaintext, 0, plaintext.length());
+    }
+
+    /**
+     * Decifra un messaggio cifrato utilizzando la chiave privata RSA.
+     *
+     * @param ciphertext Il messaggio cifrato da decifrare.
+     * @return Il messaggio in chiaro decifrato.
+     */
+    public String decrypt(String ciphertext) {
+        String[] tokens = ciphertext.split(" ");
+        if (isBlock()) return new String(decryptBlocks(tokens, 0, tokens.length), StandardCharsets.UTF_8);
+        return decryptChars(tokens, 0, tokens.length);
+    }
+
+    /**
+     * Verifica se la cifratura e la decifratura avvengono a blocchi di byte.
+     *
+     * @return true se la modalità a blocchi è selezionata e il modulo la permette.
+     */
+    boolean isBlock() {
+        return block && blockSize > 0;
+    }
+
+    /**
+     * Cifra carattere per carattere una parte del messaggio.
+     * I caratteri sono cifrati indipendentemente, quindi parti consecutive possono essere cifrate separatamente e unite con uno spazio.
+     *
+     * @param plaintext Il messaggio in chiaro.
+     * @param from Indice del primo carattere incluso.
+     * @param to Indice dell'ultimo carattere escluso.
+     * @return I numeri cifrati dei caratteri separati da spazi.
+     */
+    String encryptChars(String plaintext, int from, int to) {
         StringBuilder ciphertext = new StringBuilder();
-        for (char c : plaintext.toCharArray()) {
+        for (int i = from; i < to; i++) {
+            char c = plaintext.charAt(i);
+            if (cache) {
+                ciphertext.append(encryptCached(c)).append(" ");
+                continue;
+            }
             BigInteger m = BigInteger.valueOf(c);
             BigInteger encrypted = m.modPow(e, n);
             ciphertext.append(encrypted).append(" ");
@@ -102,18 +312,153 @@ public class TestEncryption {
     }
 
     /**
-     * Decifra un messaggio cifrato utilizzando la chiave privata RSA.
+     * Decifra carattere per carattere una parte dei numeri cifrati.
      *
-     * @param ciphertext Il messaggio cifrato da decifrare.
-     * @return Il messaggio in chiaro decifrato.
+     * @param tokens I numeri cifrati del messaggio.
+     * @param from Indice del primo numero incluso.
+     * @param to Indice dell'ultimo numero escluso.
+     * @return I caratteri decifrati.
      */
-    public String decrypt(String ciphertext) {
+    String decryptChars(String[] tokens, int from, int to) {
         StringBuilder plaintext = new StringBuilder();
-        for (String token : ciphertext.split(" ")) {
+        for (int i = from; i < to; i++) {
+            String token = tokens[i];
+            if (cache) {
+                plaintext.append(decryptCached(token));
+                continue;
+            }
             BigInteger encrypted = new BigInteger(token);
-            BigInteger decrypted = encrypted.modPow(d, n);
+            BigInteger decrypted = decryptNumber(encrypted);
             plaintext.append((char) decrypted.intValue());
         }
         return plaintext.toString();
     }
+
+    /**
+     * Cifra un carattere leggendo il numero cifrato dalla cache, e calcolandolo solo alla prima occorrenza.
+     * L'elevamento a potenza avviene fuori dal blocco della tabella, quindi le altre parti possono leggerla nel frattempo;
+     * due parti che incontrano insieme un carattere nuovo lo calcolano entrambe con lo stesso risultato.
+     *
+     * @param c Il carattere da cifrare.
+     * @return Il numero cifrato in decimale.
+     */
+    private String encryptCached(char c) {
+        String encrypted;
+        synchronized (encryptCache) {
+            encrypted = encryptCache.get(c);
+        }
+        if (encrypted == null) {
+            encrypted = BigInteger.valueOf(c).modPow(e, n).toString();
+            synchronized (encryptCache) {
+                encryptCache.put(c, encrypted);
+            }
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decifra un numero cifrato leggendo il carattere dalla cache, e calcolandolo solo alla prima occorrenza.
+     * La tabella è indicizzata dal testo del numero, quindi numeri scritti con zeri iniziali diversi sono elementi distinti.
+     * Come in {@link #encryptCached(char)} la decifratura avviene fuori dal blocco della tabella.
+     *
+     * @param token Il numero cifrato in decimale.
+     * @return Il carattere decifrato.
+     */
+    private char decryptCached(String token) {
+        Character decrypted;
+        synchronized (decryptCache) {
+            decrypted = decryptCache.get(token);
+        }
+        if (decrypted == null) {
+            decrypted = (char) decryptNumber(new BigInteger(token)).intValue();
+            synchronized (decryptCache) {
+                decryptCache.put(token, decrypted);
+            }
+        }
+        return decrypted;
+    }
+
+    /**
+     * Crea una tabella della cache limitata a {@link #CACHE_SIZE} elementi, che elimina l'elemento usato meno di recente.
+     *
+     * @param <K> Il tipo delle chiavi della tabella.
+     * @param <V> Il tipo dei valori della tabella.
+     * @return La tabella vuota.
+     */
+    private static <K, V> Map<K, V> newCache() {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Cifra a blocchi di byte una parte del messaggio convertito in byte UTF-8.
+     * I byte sono divisi in blocchi di {@link #getBlockSize()} byte, l'ultimo eventualmente più corto.
+     * Ogni blocco è preceduto dal byte 0x01, così gli zeri iniziali non vanno persi, ed è cifrato con un solo elevamento a potenza.
+     * Parti che iniziano a un multiplo di {@link #getBlockSize()} producono gli stessi blocchi del messaggio intero.
+     *
+     * @param bytes Il messaggio in chiaro in byte UTF-8.
+     * @param from Indice del primo byte incluso.
+     * @param to Indice dell'ultimo byte escluso.
+     * @return I numeri cifrati dei blocchi separati da spazi.
+     */
+    String encryptBlocks(byte[] bytes, int from, int to) {
+        StringBuilder ciphertext = new StringBuilder();
+        for (int offset = from; offset < to; offset += blockSize) {
+            int length = Math.min(blockSize, to - offset);
+            byte[] chunk = new byte[length + 1];
+            chunk[0] = 1;
+            System.arraycopy(bytes, offset, chunk, 1, length);
+            BigInteger encrypted = new BigInteger(1, chunk).modPow(e, n);
+            ciphertext.append(encrypted).append(" ");
+        }
+        return ciphertext.toString().trim();
+    }
+
+    /**
+     * Decifra a blocchi di byte una parte dei numeri cifrati, invertendo {@link #encryptBlocks(byte[], int, int)}.
+     * Il risultato non è convertito in testo perché un carattere UTF-8 può essere diviso tra due blocchi.
+     *
+     * @param tokens I numeri cifrati del messaggio.
+     * @param from Indice del primo numero incluso.
+     * @param to Indice dell'ultimo numero escluso.
+     * @return I byte decifrati.
+     */
+    byte[] decryptBlocks(String[] tokens, int from, int to) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = from; i < to; i++) {
+            byte[] chunk = decryptNumber(new BigInteger(tokens[i])).toByteArray();
+            // scarta il byte 0x01 iniziale del blocco
+            bytes.write(chunk, 1, chunk.length - 1);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decifra un singolo numero con il teorema cinese del resto se selezionato e applicabile, altrimenti con l'elevamento a potenza modulo n.
+     *
+     * @param encrypted Il numero cifrato.
+     * @return Il numero decifrato.
+     */
+    private BigInteger decryptNumber(BigInteger encrypted) {
+        return (crt && qInv != null) ? decryptCrt(encrypted) : encrypted.modPow(d, n);
+    }
+
+    /**
+     * Decifra un singolo numero con il teorema cinese del resto.
+     * Calcola m1 = c^dP mod p e m2 = c^dQ mod q e li ricombina con la formula di Garner:
+     * m = m2 + q * (qInv * (m1 - m2) mod p).
+     *
+     * @param encrypted Il numero cifrato.
+     * @return Il numero decifrato, uguale a encrypted^d mod n.
+     */
+    private BigInteger decryptCrt(BigInteger encrypted) {
+        BigInteger m1 = encrypted.modPow(dP, p);
+        BigInteger m2 = encrypted.modPow(dQ, q);
+        BigInteger h = qInv.multiply(m1.subtract(m2)).mod(p);
+        return m2.add(h.multiply(q));
+    }
 }
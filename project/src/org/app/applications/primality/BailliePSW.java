@@ -0,0 +1,145 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * La classe {@code BailliePSW} implementa il test di primalità di Baillie-PSW.
+ * <p>
+ * Il test combina il test di Miller-Rabin in base 2 con il test forte di Lucas con i parametri scelti secondo il metodo A di Selfridge.
+ * Non sono noti numeri composti che superino entrambi i test e per i numeri minori di 2^64 il risultato è verificato esatto.
+ * Il costo complessivo è di circa tre esponenziazioni modulari, indipendentemente dalla dimensione del numero.
+ * </p>
+ * <p>
+ * I metodi sono statici in modo che il test possa essere utilizzato anche al di fuori di {@link TestPrimality}.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class BailliePSW {
+
+	/**
+     * Limite dei numeri primi della tabella di {@link SmallPrimes} utilizzati per scartare rapidamente i candidati con divisori piccoli.
+     */
+	private static final int SMALL_PRIMES_LIMIT = 100;
+
+	/**
+     * La classe contiene solo metodi statici e non deve essere istanziata.
+     */
+	private BailliePSW() {
+	}
+
+	/**
+     * Test di primalità di Baillie-PSW.
+	 * @param n numero di cui si verifica la primalità
+	 * @return {@code true} se {@code n} supera sia il test di Miller-Rabin in base 2 sia il test forte di Lucas
+	 */
+	public static boolean isProbablePrime(BigInteger n) {
+		if (n.compareTo(BigInteger.valueOf(SMALL_PRIMES_LIMIT)) < 0) {
+			return Arrays.binarySearch(SmallPrimes.upTo(SMALL_PRIMES_LIMIT), n.intValue()) >= 0;
+		}
+		if (SmallPrimes.hasSmallFactor(n, SMALL_PRIMES_LIMIT)) return false;
+		//Miller-Rabin in base 2
+		final BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+		final int s = nMinusOne.getLowestSetBit();
+		if (!MillerRabin.isStrongProbablePrime(n, BigInteger.TWO, nMinusOne.shiftRight(s), s)) return false;
+		//un quadrato perfetto non ammette D con simbolo di Jacobi -1
+		final BigInteger root = n.sqrt();
+		if (root.multiply(root).equals(n)) return false;
+		return isStrongLucasProbablePrime(n);
+	}
+
+	/**
+     * Test forte di Lucas con i parametri {@code P = 1} e {@code Q = (1 - D) / 4}, dove {@code D} è il primo valore della sequenza 5, -7, 9, -11, ... con simbolo di Jacobi {@code (D/n) = -1}.
+	 * @param n numero dispari, non quadrato perfetto e senza divisori minori di 100
+	 * @return {@code true} se {@code n} è un probabile primo forte di Lucas
+	 */
+	private static boolean isStrongLucasProbablePrime(BigInteger n) {
+		//scelta dei parametri secondo il metodo A di Selfridge
+		long d = 5;
+		while (true) {
+			int j = jacobi(d, n);
+			if (j == -1) break;
+			if (j == 0 && BigInteger.valueOf(Math.abs(d)).compareTo(n) < 0) return false;
+			d = (d > 0) ? -(d + 2) : -(d - 2);
+		}
+		final BigInteger bigD = BigInteger.valueOf(d);
+		final BigInteger bigQ = BigInteger.valueOf((1 - d) / 4);
+		//n + 1 = k * 2^s con k dispari
+		final BigInteger nPlusOne = n.add(BigInteger.ONE);
+		final int s = nPlusOne.getLowestSetBit();
+		final BigInteger k = nPlusOne.shiftRight(s);
+		//calcolo di U(k), V(k) e Q^k modulo n scorrendo i bit di k dal più significativo
+		BigInteger u = BigInteger.ONE;
+		BigInteger v = BigInteger.ONE;
+		BigInteger qk = bigQ.mod(n);
+		for (int i = k.bitLength() - 2; i >= 0; i--) {
+			u = u.multiply(v).mod(n);
+			v = v.multiply(v).subtract(qk.shiftLeft(1)).mod(n);
+			qk = qk.multiply(qk).mod(n);
+			if (k.testBit(i)) {
+				BigInteger nextU = half(u.add(v), n);
+				BigInteger nextV = half(bigD.multiply(u).add(v), n);
+				u = nextU;
+				v = nextV;
+				qk = qk.multiply(bigQ).mod(n);
+			}
+		}
+		if (u.signum() == 0 || v.signum() == 0) return true;
+		for (int r = 1; r < s; r++) {
+			v = v.multiply(v).subtract(qk.shiftLeft(1)).mod(n);
+			if (v.signum() == 0) return true;
+			qk = qk.multiply(qk).mod(n);
+		}
+		return false;
+	}
+
+	/**
+     * Calcola {@code x / 2 mod n} per un modulo dispari.
+	 * @param x valore da dividere
+	 * @param n modulo dispari
+	 * @return il valore {@code y} compreso tra 0 e {@code n} escluso tale che {@code 2y = x mod n}
+	 */
+	private static BigInteger half(BigInteger x, BigInteger n) {
+		x = x.mod(n);
+		if (x.testBit(0)) x = x.add(n);
+		return x.shiftRight(1);
+	}
+
+	/**
+     * Calcola il simbolo di Jacobi {@code (a/n)}.
+	 * @param a numeratore, anche negativo
+	 * @param n denominatore dispari positivo
+	 * @return -1, 0 oppure 1
+	 */
+	static int jacobi(long a, BigInteger n) {
+		BigInteger x = BigInteger.valueOf(a).mod(n);
+		BigInteger y = n;
+		int result = 1;
+		while (x.signum() != 0) {
+			int twos = x.getLowestSetBit();
+			x = x.shiftRight(twos);
+			int yMod8 = y.intValue() & 7;
+			if ((twos & 1) == 1 && (yMod8 == 3 || yMod8 == 5)) result = -result;
+			//legge di reciprocità quadratica
+			if ((x.intValue() & 3) == 3 && (y.intValue() & 3) == 3) result = -result;
+			BigInteger t = x;
+			x = y.mod(t);
+			y = t;
+		}
+		return y.equals(BigInteger.ONE) ? result : 0;
+	}
+}
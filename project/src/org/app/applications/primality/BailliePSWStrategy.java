@@ -0,0 +1,39 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+
+/**
+ * La classe {@code BailliePSWStrategy} è la strategia del test di Baillie-PSW, esatto per tutti i numeri minori di 2^64.
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class BailliePSWStrategy implements PrimalityStrategy {
+
+	@Override
+	public String getName() {
+		return "Algoritmo di Baillie-PSW";
+	}
+
+	@Override
+	public boolean isPrime(BigInteger n) {
+		return BailliePSW.isProbablePrime(n);
+	}
+
+	@Override
+	public boolean isExact(BigInteger max) {
+		return LongPrimality.supports(max);
+	}
+}
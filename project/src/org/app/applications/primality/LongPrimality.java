@@ -0,0 +1,275 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+
+/**
+ * La classe {@code LongPrimality} raccoglie le versioni su tipi primitivi {@code long} dei test di primalità di {@link TestPrimality}.
+ * <p>
+ * Quando il massimo dell'intervallo di ricerca è rappresentabile con un {@code long} non è necessario utilizzare {@link BigInteger}:
+ * ogni metodo di questa classe riproduce la logica del corrispondente metodo di {@link TestPrimality} senza allocare oggetti per ogni candidato o divisore.
+ * </p>
+ * <p>
+ * I cicli sui divisori controllano periodicamente {@code isInterrupted()} e in caso di interruzione terminano restituendo {@code false}, lasciando al chiamante la gestione dell'interruzione.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class LongPrimality {
+
+	/**
+     * Maschera utilizzata per controllare l'interruzione del thread una volta ogni 65536 divisori.
+     */
+	private static final long INTERRUPT_MASK = 0xFFFF;
+
+	/**
+     * Massimo modulo per cui il prodotto di due residui non supera {@code Long.MAX_VALUE}.
+     */
+	private static final long DIRECT_MUL_LIMIT = 3037000499L;
+
+	/**
+     * La classe contiene solo metodi statici e non deve essere istanziata.
+     */
+	private LongPrimality() {
+	}
+
+	/**
+     * Verifica se l'intervallo fino al massimo dato può essere elaborato con i tipi primitivi.
+	 * @param max numero massimo dell'intervallo di ricerca dei numeri primi
+	 * @return {@code true} se {@code max} è rappresentabile con un {@code long}
+	 */
+	public static boolean supports(BigInteger max) {
+		return max.bitLength() < Long.SIZE;
+	}
+
+	/**
+     * Verifica se il thread corrente è stato interrotto, solo quando il contatore dato è multiplo di 65536.
+	 * @param j contatore del ciclo sui divisori
+	 * @return {@code true} se il thread è stato interrotto
+	 */
+	private static boolean interrupted(long j) {
+		return (j & INTERRUPT_MASK) == 0 && Thread.currentThread().isInterrupted();
+	}
+
+	/**
+     * Test di primalità con la ricerca dei divisori fino al numero, equivalente a {@link TestPrimality#calcPrimeUntilNum()}.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se nessun divisore è stato trovato
+	 */
+	public static boolean isPrimeUntilNum(long i) {
+		boolean checkPrimo = true;
+		for (long j = 2; j < i; j++) {
+			if (interrupted(j)) return false;
+			if (i % j == 0) checkPrimo = false;
+		}
+		return checkPrimo;
+	}
+
+	/**
+     * Test di primalità con la ricerca dei divisori fino al numero uscendo dal ciclo appena possibile, equivalente a {@link TestPrimality#calcPrimeUntilNumWithBreak()}.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se nessun divisore è stato trovato
+	 */
+	public static boolean isPrimeUntilNumWithBreak(long i) {
+		for (long j = 2; j < i; j++) {
+			if (interrupted(j)) return false;
+			if (i % j == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+     * Test di primalità con la ricerca dei divisori fino alla metà del numero, equivalente a {@link TestPrimality#calcPrimeUntilHalfNum()}.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se nessun divisore è stato trovato
+	 */
+	public static boolean isPrimeUntilHalfNum(long i) {
+		boolean checkPrimo = true;
+		final long half = i / 2;
+		for (long j = 2; j <= half; j++) {
+			if (interrupted(j)) return false;
+			if (i % j == 0) checkPrimo = false;
+		}
+		return checkPrimo;
+	}
+
+	/**
+     * Test di primalità con la ricerca dei divisori fino alla metà del numero scartando i numeri pari, equivalente a {@link TestPrimality#calcPrimeUntilHalfNumOnlyOdd()}.
+     * Il controllo di parità viene eseguito una sola volta prima del ciclo sui divisori.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se nessun divisore è stato trovato
+	 */
+	public static boolean isPrimeUntilHalfNumOnlyOdd(long i) {
+		final long half = i / 2;
+		if (half >= 2 && i % 2 == 0) return false;
+		boolean checkPrimo = true;
+		for (long j = 2; j <= half; j++) {
+			if (interrupted(j)) return false;
+			if (i % j == 0) checkPrimo = false;
+		}
+		return checkPrimo;
+	}
+
+	/**
+     * Test di primalità con la ricerca dei divisori fino alla radice del numero scartando i numeri pari ed uscendo dal ciclo appena possibile,
+     * equivalente a {@link TestPrimality#calcPrimeUntilRadixNumOnlyOddWithBreak()}.
+     * I divisori sono i soli numeri primi della tabella di {@link SmallPrimes}.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se nessun divisore è stato trovato
+	 */
+	public static boolean isPrimeUntilRadixNumOnlyOddWithBreak(long i) {
+		return SmallPrimes.isPrime(i);
+	}
+
+	/**
+     * Test di primalità con l'algoritmo di Fermat sulle basi da 2 a 10, equivalente a {@link TestPrimality#algoritmoFermat()}.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se il numero supera il test per tutte le basi
+	 */
+	public static boolean isPrimeFermat(long i) {
+		if (i < 2) return false; //il modulo deve essere positivo, 1 non supera comunque il test
+		boolean checkPrimo = true;
+		for (long j = 2; j <= 10; j++) {
+			if (powMod(j, i - 1, i) != 1) checkPrimo = false;
+		}
+		return checkPrimo;
+	}
+
+	/**
+     * Calcola la parte intera della radice quadrata di un numero non negativo.
+	 * @param n numero non negativo
+	 * @return il massimo {@code r} tale che {@code r * r <= n}
+	 */
+	public static long sqrt(long n) {
+		long r = (long) Math.sqrt((double) n);
+		while (r > 0 && (r > DIRECT_MUL_LIMIT || r * r > n)) r--;
+		while (r + 1 <= DIRECT_MUL_LIMIT && (r + 1) * (r + 1) <= n) r++;
+		return r;
+	}
+
+	/**
+     * Calcola {@code (a * b) mod m} senza overflow per residui {@code a, b} minori di {@code m}.
+     * Per moduli piccoli il prodotto è calcolato direttamente, altrimenti il prodotto a 128 bit è calcolato con {@link Math#multiplyHigh(long, long)}
+     * e ridotto con {@link #remainder(long, long, long)}, con un costo di due divisioni invece di un ciclo sui bit del fattore.
+	 * @param a primo fattore, compreso tra 0 e {@code m} escluso
+	 * @param b secondo fattore, compreso tra 0 e {@code m} escluso
+	 * @param m modulo positivo
+	 * @return il prodotto modulare
+	 */
+	public static long mulMod(long a, long b, long m) {
+		if (m <= DIRECT_MUL_LIMIT) return (a * b) % m;
+		//i fattori sono non negativi, quindi la parte alta con segno coincide con quella senza segno ed è minore di m
+		return remainder(Math.multiplyHigh(a, b), a * b, m);
+	}
+
+	/**
+     * Calcola il resto della divisione di un numero senza segno a 128 bit per un modulo positivo, con la divisione lunga in base 2^32 di Knuth (algoritmo D).
+	 * @param high 64 bit più significativi del dividendo, minori del modulo
+	 * @param low 64 bit meno significativi del dividendo, senza segno
+	 * @param m modulo positivo
+	 * @return il resto della divisione, compreso tra 0 e {@code m} escluso
+	 */
+	private static long remainder(long high, long low, long m) {
+		final long base = 1L << 32;
+		final long mask = base - 1;
+		//il modulo viene normalizzato in modo che il bit più significativo sia 1, m è positivo quindi lo spostamento è almeno 1
+		final int shift = Long.numberOfLeadingZeros(m);
+		final long v = m << shift;
+		final long vn1 = v >>> 32;
+		final long vn0 = v & mask;
+		final long un32 = (high << shift) | (low >>> (64 - shift));
+		final long un10 = low << shift;
+		final long un1 = un10 >>> 32;
+		final long un0 = un10 & mask;
+		//prima cifra del quoziente, stimata dividendo per la cifra alta del modulo e corretta al massimo due volte
+		long q1 = Long.divideUnsigned(un32, vn1);
+		long rhat = un32 - q1 * vn1;
+		while (Long.compareUnsigned(q1, base) >= 0 || Long.compareUnsigned(q1 * vn0, (rhat << 32) + un1) > 0) {
+			q1--;
+			rhat += vn1;
+			if (Long.compareUnsigned(rhat, base) >= 0) break;
+		}
+		final long un21 = (un32 << 32) + un1 - q1 * v;
+		//seconda cifra del quoziente
+		long q0 = Long.divideUnsigned(un21, vn1);
+		rhat = un21 - q0 * vn1;
+		while (Long.compareUnsigned(q0, base) >= 0 || Long.compareUnsigned(q0 * vn0, (rhat << 32) + un0) > 0) {
+			q0--;
+			rhat += vn1;
+			if (Long.compareUnsigned(rhat, base) >= 0) break;
+		}
+		return ((un21 << 32) + un0 - q0 * v) >>> shift;
+	}
+
+	/**
+     * Calcola {@code base ^ exp mod m} con l'esponenziazione per quadrati successivi, equivalente a {@link BigInteger#modPow(BigInteger, BigInteger)}.
+     * Per moduli dispari oltre {@link #DIRECT_MUL_LIMIT} i prodotti sono calcolati nella forma di Montgomery con {@link #montgomeryMul(long, long, long, long)}, senza divisioni.
+	 * @param base base non negativa
+	 * @param exp esponente non negativo
+	 * @param m modulo positivo
+	 * @return la potenza modulare
+	 */
+	public static long powMod(long base, long exp, long m) {
+		base %= m;
+		if (m > DIRECT_MUL_LIMIT && (m & 1) == 1) {
+			final long inverse = inverse(m);
+			long result = remainder(1, 0, m); //1 nella forma di Montgomery, cioè 2^64 mod m
+			base = remainder(base, 0, m);
+			while (exp > 0) {
+				if ((exp & 1) == 1) result = montgomeryMul(result, base, m, inverse);
+				base = montgomeryMul(base, base, m, inverse);
+				exp >>= 1;
+			}
+			return montgomeryMul(result, 1, m, inverse);
+		}
+		long result = 1 % m;
+		while (exp > 0) {
+			if ((exp & 1) == 1) result = mulMod(result, base, m);
+			base = mulMod(base, base, m);
+			exp >>= 1;
+		}
+		return result;
+	}
+
+	/**
+     * Calcola l'inverso di un modulo dispari modulo 2^64 con il metodo di Newton, ogni iterazione raddoppia i bit corretti.
+	 * @param m modulo dispari
+	 * @return il valore {@code x} tale che {@code m * x = 1} modulo 2^64
+	 */
+	private static long inverse(long m) {
+		long x = m; //corretto sui 3 bit meno significativi per ogni m dispari
+		for (int i = 0; i < 5; i++) {
+			x *= 2 - m * x;
+		}
+		return x;
+	}
+
+	/**
+     * Calcola il prodotto di Montgomery {@code a * b * 2^-64 mod m}: sottrae dal prodotto a 128 bit il multiplo di m con gli stessi 64 bit bassi, quindi la divisione per 2^64 è esatta.
+	 * @param a primo fattore nella forma di Montgomery, compreso tra 0 e {@code m} escluso
+	 * @param b secondo fattore nella forma di Montgomery, compreso tra 0 e {@code m} escluso
+	 * @param m modulo dispari positivo
+	 * @param inverse inverso di m modulo 2^64, calcolato con {@link #inverse(long)}
+	 * @return il prodotto nella forma di Montgomery
+	 */
+	private static long montgomeryMul(long a, long b, long m, long inverse) {
+		final long high = Math.multiplyHigh(a, b);
+		final long q = a * b * inverse;
+		//parte alta senza segno di q * m, m è positivo quindi si corregge solo il segno di q
+		final long qmHigh = Math.multiplyHigh(q, m) + ((q >> 63) & m);
+		final long result = high - qmHigh;
+		return (result < 0) ? result + m : result;
+	}
+}
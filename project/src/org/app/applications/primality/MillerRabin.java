@@ -0,0 +1,171 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * La classe {@code MillerRabin} implementa il test di primalità forte di Miller-Rabin.
+ * <p>
+ * A differenza dell'algoritmo di Fermat il test riconosce come composti anche i numeri di Carmichael.
+ * Per i numeri minori di {@link #DETERMINISTIC_LIMIT}, circa 3,3 * 10^24, vengono utilizzati insiemi di basi noti per cui il test è deterministico e il risultato è esatto,
+ * mentre oltre tale limite il test è probabilistico con un numero configurabile di basi casuali: ogni base riduce di almeno un fattore 4 la probabilità di errore.
+ * </p>
+ * <p>
+ * I metodi sono statici in modo che il test possa essere utilizzato anche al di fuori di {@link TestPrimality}.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class MillerRabin {
+
+	/**
+     * Numero di basi casuali utilizzate di default per i numeri non coperti dalle basi deterministiche.
+     */
+	public static final int DEFAULT_ROUNDS = 20;
+
+	/**
+     * Basi sufficienti per un risultato esatto per ogni numero minore di 4759123141.
+     */
+	private static final long[] BASES_32 = {2, 7, 61};
+
+	/**
+     * Basi sufficienti per un risultato esatto per ogni numero minore di 318665857834031151167461, quindi per tutti i numeri di 64 bit.
+     */
+	private static final long[] BASES_64 = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+	/**
+     * Basi sufficienti per un risultato esatto per ogni numero minore di {@link #DETERMINISTIC_LIMIT}: oltre 318665857834031151167461 serve anche la base 41.
+     */
+	private static final long[] BASES_BIG = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41};
+
+	/**
+     * Limite entro cui sono sufficienti le basi {@link #BASES_32}.
+     */
+	private static final long LIMIT_32 = 4759123141L;
+
+	/**
+     * Limite entro cui sono sufficienti le basi {@link #BASES_BIG} e il test è deterministico, da questo valore in su vengono provate basi casuali.
+     */
+	public static final BigInteger DETERMINISTIC_LIMIT = new BigInteger("3317044064679887385961981");
+
+	/**
+     * La classe contiene solo metodi statici e non deve essere istanziata.
+     */
+	private MillerRabin() {
+	}
+
+	/**
+     * Test di primalità deterministico per numeri rappresentabili con un {@code long}.
+	 * @param n numero di cui si verifica la primalità
+	 * @return {@code true} se e solo se {@code n} è primo
+	 */
+	public static boolean isPrime(long n) {
+		if (n < 2) return false;
+		for (long p : BASES_64) {
+			if (n % p == 0) return n == p;
+		}
+		long d = n - 1;
+		final int s = Long.numberOfTrailingZeros(d);
+		d >>= s;
+		for (long a : (n < LIMIT_32) ? BASES_32 : BASES_64) {
+			if (!isStrongProbablePrime(n, a, d, s)) return false;
+		}
+		return true;
+	}
+
+	/**
+     * Test di primalità con il numero di basi casuali di default.
+	 * @param n numero di cui si verifica la primalità
+	 * @return {@code true} se {@code n} è primo, con risultato esatto per {@code n} minore di {@link #DETERMINISTIC_LIMIT}
+	 * @see #isProbablePrime(BigInteger, int)
+	 */
+	public static boolean isProbablePrime(BigInteger n) {
+		return isProbablePrime(n, DEFAULT_ROUNDS);
+	}
+
+	/**
+     * Test di primalità per numeri di qualsiasi dimensione.
+     * Sotto {@link #DETERMINISTIC_LIMIT} il risultato è esatto, oltre vengono provate {@code rounds} basi casuali e la probabilità che un composto superi il test è al massimo 4^-rounds.
+	 * @param n numero di cui si verifica la primalità
+	 * @param rounds numero di basi casuali da provare per i numeri non coperti dalle basi deterministiche
+	 * @return {@code true} se {@code n} è primo o probabilmente primo
+	 */
+	public static boolean isProbablePrime(BigInteger n, int rounds) {
+		if (n.bitLength() < Long.SIZE) return isPrime(n.longValue());
+		for (long p : BASES_BIG) {
+			if (n.mod(BigInteger.valueOf(p)).signum() == 0) return false;
+		}
+		final BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+		final int s = nMinusOne.getLowestSetBit();
+		final BigInteger d = nMinusOne.shiftRight(s);
+		if (n.compareTo(DETERMINISTIC_LIMIT) < 0) {
+			for (long a : BASES_BIG) {
+				if (!isStrongProbablePrime(n, BigInteger.valueOf(a), d, s)) return false;
+			}
+			return true;
+		}
+		final Random random = ThreadLocalRandom.current();
+		final BigInteger two = BigInteger.valueOf(2);
+		for (int r = 0; r < rounds; r++) {
+			//base casuale compresa tra 2 e n - 2
+			BigInteger a;
+			do {
+				a = new BigInteger(n.bitLength(), random);
+			} while (a.compareTo(two) < 0 || a.compareTo(nMinusOne) >= 0);
+			if (!isStrongProbablePrime(n, a, d, s)) return false;
+		}
+		return true;
+	}
+
+	/**
+     * Verifica se {@code n} è un probabile primo forte in base {@code a}, con {@code n - 1 = d * 2^s} e {@code d} dispari.
+	 * @param n numero dispari maggiore di 2
+	 * @param a base del test
+	 * @param d parte dispari di {@code n - 1}
+	 * @param s esponente della potenza di 2 in {@code n - 1}
+	 * @return {@code false} se {@code a} è testimone della non primalità di {@code n}
+	 */
+	static boolean isStrongProbablePrime(long n, long a, long d, int s) {
+		if (a % n == 0) return true; //la base coincide con n e non fornisce informazioni
+		long x = LongPrimality.powMod(a, d, n);
+		if (x == 1 || x == n - 1) return true;
+		for (int r = 1; r < s; r++) {
+			x = LongPrimality.mulMod(x, x, n);
+			if (x == n - 1) return true;
+		}
+		return false;
+	}
+
+	/**
+     * Verifica se {@code n} è un probabile primo forte in base {@code a}, con {@code n - 1 = d * 2^s} e {@code d} dispari.
+	 * @param n numero dispari maggiore della base
+	 * @param a base del test
+	 * @param d parte dispari di {@code n - 1}
+	 * @param s esponente della potenza di 2 in {@code n - 1}
+	 * @return {@code false} se {@code a} è testimone della non primalità di {@code n}
+	 */
+	static boolean isStrongProbablePrime(BigInteger n, BigInteger a, BigInteger d, int s) {
+		final BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+		BigInteger x = a.modPow(d, n);
+		if (x.equals(BigInteger.ONE) || x.equals(nMinusOne)) return true;
+		for (int r = 1; r < s; r++) {
+			x = x.multiply(x).mod(n);
+			if (x.equals(nMinusOne)) return true;
+		}
+		return false;
+	}
+}
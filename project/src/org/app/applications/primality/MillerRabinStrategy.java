@@ -0,0 +1,73 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+
+/**
+ * La classe {@code MillerRabinStrategy} è la strategia del test di Miller-Rabin.
+ * <p>
+ * Sotto {@link MillerRabin#DETERMINISTIC_LIMIT} il test è deterministico, oltre vengono provate {@link #getRounds()} basi casuali.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class MillerRabinStrategy implements PrimalityStrategy {
+
+	/**
+     * Numero di basi casuali provate per i numeri non coperti dalle basi deterministiche.
+     */
+	private final int rounds;
+
+	/**
+     * Crea la strategia con il numero di basi casuali dato.
+	 * @param rounds numero di basi casuali
+	 */
+	public MillerRabinStrategy(int rounds) {
+		this.rounds = rounds;
+	}
+
+	/**
+     * Questo metodo ritorna il numero di basi casuali provate da {@link MillerRabin#DETERMINISTIC_LIMIT} in su.
+	 * @return numero di basi casuali
+	 */
+	public int getRounds() {
+		return rounds;
+	}
+
+	@Override
+	public String getName() {
+		return "Algoritmo di Miller-Rabin";
+	}
+
+	@Override
+	public boolean isPrime(long n) {
+		return MillerRabin.isPrime(n);
+	}
+
+	@Override
+	public boolean isPrime(BigInteger n) {
+		return MillerRabin.isProbablePrime(n, rounds);
+	}
+
+	@Override
+	public boolean isExact(BigInteger max) {
+		return LongPrimality.supports(max);
+	}
+
+	@Override
+	public PrimalityStrategy withRounds(int rounds) {
+		return (rounds == this.rounds) ? this : new MillerRabinStrategy(rounds);
+	}
+}
@@ -0,0 +1,246 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La classe {@code ParallelPrimality} sviluppa un calcolo di {@link TestPrimality} in parallelo su un {@link ForkJoinPool}.
+ * <p>
+ * L'intervallo {@code [min, max]} viene suddiviso in sotto intervalli di uguale ampiezza, in numero sufficiente perché il work stealing possa
+ * bilanciare il carico quando la densità dei numeri primi e il costo dei test variano lungo l'intervallo.
+ * Ogni sotto intervallo viene elaborato con un {@link TestPrimality} creato da {@link TestPrimality#subRange(BigInteger, BigInteger, Runnable)},
+ * quindi con lo stesso metodo di calcolo del test originale.
+ * </p>
+ * <p>
+ * I risultati dei sotto intervalli vengono pubblicati nel test originale in ordine crescente appena tutti i sotto intervalli precedenti sono terminati,
+ * in modo che le callback della UI vengano invocate come nel calcolo sequenziale.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+class ParallelPrimality {
+
+	/**
+     * Numero di sotto intervalli creati per ogni thread, necessario per permettere il bilanciamento del carico.
+     */
+	private static final int RANGES_PER_THREAD = 16;
+
+	/**
+     * Numero di candidati elaborati da un sotto intervallo prima di aggiornare la barra di progresso.
+     */
+	private static final int PROGRESS_BATCH = 4096;
+
+	/**
+     * Test di primalità originale in cui vengono pubblicati i risultati.
+     */
+	private final TestPrimality parent;
+
+	/**
+     * Numero minimo dell'intervallo di ricerca.
+     */
+	private final BigInteger min;
+
+	/**
+     * Numero massimo dell'intervallo di ricerca.
+     */
+	private final BigInteger max;
+
+	/**
+     * Numero di thread del pool.
+     */
+	private final int parallelism;
+
+	/**
+     * Ampiezza di ogni sotto intervallo, l'ultimo può essere più corto.
+     */
+	private final BigInteger rangeWidth;
+
+	/**
+     * Numero di sotto intervalli.
+     */
+	private final int ranges;
+
+	/**
+     * Risultati dei sotto intervalli terminati e non ancora pubblicati.
+     */
+	private final List<PrimeStore> completed;
+
+	/**
+     * Indice del primo sotto intervallo non ancora pubblicato.
+     */
+	private int nextToPublish = 0;
+
+	/**
+     * Indica se il calcolo è stato annullato, dopo l'annullamento nessun risultato viene pubblicato.
+     */
+	private volatile boolean cancelled = false;
+
+	/**
+     * Questo costruttore suddivide l'intervallo di ricerca in sotto intervalli.
+	 * @param parent test di primalità originale in cui pubblicare i risultati
+	 * @param min numero minimo dell'intervallo di ricerca
+	 * @param max numero massimo dell'intervallo di ricerca
+	 * @param parallelism numero di thread da utilizzare
+	 */
+	ParallelPrimality(TestPrimality parent, BigInteger min, BigInteger max, int parallelism) {
+		this.parent = parent;
+		this.min = min;
+		this.max = max;
+		this.parallelism = parallelism;
+		final BigInteger width = max.subtract(min).add(BigInteger.ONE);
+		final BigInteger target = BigInteger.valueOf((long) parallelism * RANGES_PER_THREAD);
+		BigInteger size = width.add(target).subtract(BigInteger.ONE).divide(target);
+		size = size.max(BigInteger.valueOf(parent.getMinParallelRange()));
+		this.rangeWidth = size;
+		this.ranges = width.add(size).subtract(BigInteger.ONE).divide(size).intValue();
+		this.completed = new ArrayList<>(Collections.nCopies(ranges, null));
+	}
+
+	/**
+     * Sviluppa il calcolo parallelo e attende che tutti i sotto intervalli siano stati pubblicati.
+     * Con un solo sotto intervallo il calcolo viene sviluppato direttamente sul thread corrente.
+	 * @throws InterruptedException se il thread corrente viene interrotto, in tal caso i sotto intervalli in corso vengono annullati
+	 * @throws IllegalStateException se il calcolo di un sotto intervallo fallisce, con la causa originale
+	 */
+	void run() throws InterruptedException {
+		if (ranges <= 1 || parallelism <= 1) {
+			parent.calc();
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			Future<Void> future = pool.submit(new RangeTask(0, ranges));
+			future.get();
+		} catch (InterruptedException e) {
+			cancel();
+			throw e;
+		} catch (ExecutionException e) {
+			cancel();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+			pool.awaitTermination(1, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+     * Annulla il calcolo impedendo la pubblicazione di ulteriori risultati.
+     */
+	private synchronized void cancel() {
+		cancelled = true;
+	}
+
+	/**
+     * Registra i risultati di un sotto intervallo terminato e pubblica nel test originale, in ordine crescente, tutti i sotto intervalli consecutivi disponibili.
+	 * @param index indice del sotto intervallo terminato
+	 * @param primes numeri primi trovati nel sotto intervallo
+	 * @param progress candidati elaborati non ancora riportati alla barra di progresso
+	 */
+	private synchronized void publish(int index, PrimeStore primes, long progress) {
+		if (cancelled) return;
+		parent.publishProgress(progress);
+		completed.set(index, primes);
+		while (nextToPublish < ranges && completed.get(nextToPublish) != null) {
+			final PrimeStore ready = completed.get(nextToPublish);
+			for (int k = 0; k < ready.size(); k++) {
+				parent.publishResult(ready, k);
+			}
+			completed.set(nextToPublish, null);
+			nextToPublish++;
+		}
+		parent.scanned(getPublished());
+	}
+
+	/**
+     * Riporta alla barra di progresso i candidati elaborati da un sotto intervallo in corso.
+	 * @param progress numero di candidati elaborati
+	 */
+	private synchronized void progress(long progress) {
+		if (cancelled) return;
+		parent.publishProgress(progress);
+		parent.scanned(getPublished());
+	}
+
+	/**
+     * Restituisce il primo numero non ancora pubblicato: i sotto intervalli precedenti sono stati pubblicati in ordine, quindi tutti i numeri minori sono stati verificati.
+	 * @return inizio del primo sotto intervallo non pubblicato, o il successivo del massimo se sono stati pubblicati tutti
+	 */
+	private BigInteger getPublished() {
+		return min.add(rangeWidth.multiply(BigInteger.valueOf(nextToPublish))).min(max.add(BigInteger.ONE));
+	}
+
+	/**
+     * Task che elabora i sotto intervalli con indice compreso tra {@code from} incluso e {@code to} escluso, dividendosi a metà finché resta un solo sotto intervallo.
+     */
+	private class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+         * Indice del primo sotto intervallo incluso.
+         */
+		private final int from;
+
+		/**
+         * Indice dell'ultimo sotto intervallo escluso.
+         */
+		private final int to;
+
+		/**
+         * Candidati elaborati e non ancora riportati alla barra di progresso.
+         */
+		private long pending = 0;
+
+		/**
+         * Crea il task per i sotto intervalli dati.
+		 * @param from indice del primo sotto intervallo incluso
+		 * @param to indice dell'ultimo sotto intervallo escluso
+		 */
+		RangeTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				final int mid = (from + to) >>> 1;
+				invokeAll(new RangeTask(from, mid), new RangeTask(mid, to));
+				return;
+			}
+			if (cancelled || Thread.currentThread().isInterrupted()) return;
+			final BigInteger low = min.add(rangeWidth.multiply(BigInteger.valueOf(from)));
+			final BigInteger high = low.add(rangeWidth).subtract(BigInteger.ONE).min(max);
+			TestPrimality test = parent.subRange(low, high, () -> {
+				if (++pending == PROGRESS_BATCH) {
+					progress(pending);
+					pending = 0;
+				}
+			});
+			test.calc();
+			//un sotto intervallo interrotto ha risultati parziali e non viene pubblicato
+			if (Thread.currentThread().isInterrupted()) return;
+			publish(from, test.getResults(), pending);
+		}
+	}
+}
@@ -0,0 +1,384 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * La classe {@code PrimalityCheckpoint} gestisce il giornale su disco di una ricerca di {@link TestPrimality}, da cui la ricerca può essere ripresa dopo un'interruzione.
+ * <p>
+ * Il giornale è un file di testo in {@link #DIRECTORY}, con un nome diverso per ogni intervallo e metodo di calcolo, che contiene un'intestazione con il minimo, il massimo e il metodo di calcolo, seguita dai numeri primi trovati
+ * nell'ordine in cui vengono aggiunti ai risultati. Almeno ogni {@link #INTERVAL_MILLIS} millisecondi, e quando la ricerca viene interrotta, viene scritto un punto di ripresa
+ * {@code c <prossimo> <tempo> <numeri>} e il file viene forzato su disco: il prossimo numero da verificare è la posizione raggiunta dalla scansione,
+ * sotto la quale tutti i numeri sono stati verificati, in quanto i numeri primi vengono aggiunti in ordine crescente sia dal calcolo sequenziale sia dal calcolo parallelo.
+ * Il punto di ripresa viene scritto sia quando viene trovato un numero primo sia durante la scansione, quindi anche in un lungo tratto senza numeri primi.
+ * </p>
+ * <p>
+ * {@link #load(String, String, int)} legge il giornale fino all'ultimo punto di ripresa e ignora i numeri scritti dopo, quindi un'interruzione anomala
+ * dell'applicazione fa perdere al massimo gli ultimi {@link #INTERVAL_MILLIS} millisecondi di calcolo. Al termine della ricerca il giornale viene eliminato.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class PrimalityCheckpoint {
+
+	/**
+     * Cartella in cui viene scritto il giornale, nella cartella dell'utente.
+     */
+	public static final Path DIRECTORY = Paths.get(System.getProperty("user.home"), ".fermat-and-rsa");
+
+	/**
+     * Prefisso del nome del giornale, seguito dall'impronta dell'intervallo e del metodo di calcolo.
+     */
+	private static final String PREFIX = "primality-checkpoint-";
+
+	/**
+     * Intervallo massimo in millisecondi tra due punti di ripresa.
+     */
+	public static final long INTERVAL_MILLIS = 5000;
+
+	/**
+     * Prima riga del giornale, che ne identifica il formato.
+     */
+	private static final String MAGIC = "Fermat-And-RSA checkpoint 1";
+
+	/**
+     * Dimensione del buffer di scrittura.
+     */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+     * Valore minimo dell'intervallo della ricerca.
+     */
+	private final String min;
+
+	/**
+     * Valore massimo dell'intervallo della ricerca.
+     */
+	private final String max;
+
+	/**
+     * Metodo di calcolo della ricerca.
+     */
+	private final int choice;
+
+	/**
+     * Percorso del giornale, uno per ogni intervallo e metodo di calcolo.
+     */
+	private final Path path;
+
+	/**
+     * Prossimo numero da verificare all'ultimo punto di ripresa.
+     */
+	private BigInteger next;
+
+	/**
+     * Tempo di calcolo in secondi all'ultimo punto di ripresa.
+     */
+	private double time;
+
+	/**
+     * Numeri primi trovati fino all'ultimo punto di ripresa, letti da {@link #load(String, String, int)}.
+     */
+	private final PrimeStore results = new PrimeStore();
+
+	/**
+     * Flusso del file aperto in scrittura, {@code null} se il giornale non è aperto o se la scrittura è fallita.
+     */
+	private FileOutputStream stream;
+
+	/**
+     * Scrittura bufferizzata sul flusso del file.
+     */
+	private Writer writer;
+
+	/**
+     * Istante dell'ultimo punto di ripresa.
+     */
+	private long lastCheckpoint;
+
+	/**
+     * Costruttore privato, le istanze sono create da {@link #create(String, String, int)} e da {@link #load(String, String, int)}.
+	 * @param min valore minimo dell'intervallo
+	 * @param max valore massimo dell'intervallo
+	 * @param choice metodo di calcolo
+    */
+	private PrimalityCheckpoint(String min, String max, int choice) {
+		this.min = min;
+		this.max = max;
+		this.choice = choice;
+		this.path = pathOf(min, max, choice);
+		this.next = new BigInteger(min);
+	}
+
+	/**
+     * Questo metodo calcola il percorso del giornale di una ricerca, con un nome che contiene i primi 64 bit dell'impronta SHA-256 dell'intervallo e del metodo di calcolo<br>Ricerche diverse scrivono giornali diversi, quindi una nuova ricerca non sostituisce il giornale di un'altra ricerca interrotta<br>L'intestazione del giornale viene comunque verificata da {@link #load(String, String, int)}
+	 * @param min valore minimo dell'intervallo
+	 * @param max valore massimo dell'intervallo
+	 * @param choice metodo di calcolo
+	 * @return percorso del giornale in {@link #DIRECTORY}
+    */
+	static Path pathOf(String min, String max, int choice) {
+		final byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256").digest((min + "\n" + max + "\n" + choice).getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); //SHA-256 è disponibile in ogni piattaforma Java
+		}
+		return DIRECTORY.resolve(PREFIX + String.format("%016x", ByteBuffer.wrap(digest).getLong()) + ".txt");
+	}
+
+	/**
+     * Questo metodo crea un nuovo giornale per una ricerca, sostituendo solo quello di una ricerca precedente con lo stesso intervallo e lo stesso metodo<br>Se il file non può essere creato le scritture successive vengono ignorate
+	 * @param min valore minimo dell'intervallo
+	 * @param max valore massimo dell'intervallo
+	 * @param choice metodo di calcolo
+	 * @return giornale aperto in scrittura
+    */
+	public static PrimalityCheckpoint create(String min, String max, int choice) {
+		PrimalityCheckpoint checkpoint = new PrimalityCheckpoint(min, max, choice);
+		try {
+			Files.createDirectories(DIRECTORY);
+		} catch (IOException e) {
+			return checkpoint;
+		}
+		checkpoint.open();
+		return checkpoint;
+	}
+
+	/**
+     * Questo metodo legge il giornale della ricerca con l'intervallo e il metodo dati fino all'ultimo punto di ripresa
+	 * @param min valore minimo dell'intervallo
+	 * @param max valore massimo dell'intervallo
+	 * @param choice metodo di calcolo
+	 * @return giornale letto, da riaprire con {@link #open()}, o {@code null} se non esiste un giornale della stessa ricerca
+    */
+	public static PrimalityCheckpoint load(String min, String max, int choice) {
+		PrimalityCheckpoint checkpoint = new PrimalityCheckpoint(min, max, choice);
+		if (!Files.isRegularFile(checkpoint.path)) return null;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(checkpoint.path), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			if (!MAGIC.equals(reader.readLine()) || !min.equals(reader.readLine()) || !max.equals(reader.readLine())
+					|| !Integer.toString(choice).equals(reader.readLine())) return null;
+			boolean committed = false;
+			int count = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					if (line.startsWith("c ")) {
+						String[] fields = line.split(" ");
+						//un punto di ripresa scritto solo in parte non ha quattro campi o non conta tutti i numeri primi che lo precedono
+						if (fields.length != 4 || Integer.parseInt(fields[3]) != checkpoint.results.size()) break;
+						checkpoint.next = new BigInteger(fields[1]);
+						checkpoint.time = Double.parseDouble(fields[2]);
+						count = checkpoint.results.size();
+						committed = true;
+					} else if (line.length() < 19) {
+						checkpoint.results.add(Long.parseLong(line));
+					} else {
+						checkpoint.results.add(new BigInteger(line));
+					}
+				} catch (NumberFormatException e) {
+					break; //riga scritta solo in parte
+				}
+			}
+			if (!committed) return null;
+			//i numeri primi scritti dopo l'ultimo punto di ripresa vengono verificati di nuovo
+			checkpoint.results.truncate(count);
+		} catch (IOException e) {
+			return null;
+		}
+		return checkpoint;
+	}
+
+	/**
+     * Questo metodo apre in scrittura il giornale, riscrivendolo con i soli numeri primi fino all'ultimo punto di ripresa<br>Il giornale viene scritto in un file temporaneo e sostituito in modo atomico, così un'interruzione durante la riscrittura non perde il giornale precedente e una ricerca interrotta che scrive ancora il suo ultimo punto di ripresa non modifica il nuovo file<br>Dopo la riscrittura i numeri primi letti da {@link #load(String, String, int)} vengono rimossi, quindi vanno letti con {@link #getResults()} prima di questo metodo
+    */
+	public void open() {
+		final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+			Writer rewrite = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+			rewrite.write(MAGIC + "\n" + min + "\n" + max + "\n" + choice + "\n");
+			for (int i = 0; i < results.size(); i++) {
+				rewrite.write(results.toString(i));
+				rewrite.write('\n');
+			}
+			rewrite.write("c " + next + " " + time + " " + results.size() + "\n");
+			rewrite.flush();
+			out.getChannel().force(false);
+		} catch (IOException e) {
+			return;
+		} finally {
+			//i numeri primi letti sono già stati copiati nei risultati della ricerca e non vengono tenuti in memoria una seconda volta
+			results.clear();
+		}
+		try {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			openStream();
+			lastCheckpoint = System.currentTimeMillis();
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Questo metodo apre il flusso del file in scrittura in fondo al file
+	 * @throws IOException se il file non può essere aperto
+    */
+	private void openStream() throws IOException {
+		stream = new FileOutputStream(path.toFile(), true);
+		writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	/**
+     * Questo metodo aggiunge al giornale un numero primo trovato
+	 * @param prime numero primo trovato
+    */
+	public synchronized void append(long prime) {
+		if (writer == null) return;
+		try {
+			writer.write(Long.toString(prime));
+			writer.write('\n');
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Questo metodo aggiunge al giornale un numero primo trovato di qualsiasi dimensione
+	 * @param prime numero primo trovato
+    */
+	public synchronized void append(BigInteger prime) {
+		if (writer == null) return;
+		try {
+			writer.write(prime.toString());
+			writer.write('\n');
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Questo metodo indica se dall'ultimo punto di ripresa è trascorso almeno {@link #INTERVAL_MILLIS}
+	 * @return true se deve essere scritto un punto di ripresa
+    */
+	public boolean isDue() {
+		return writer != null && System.currentTimeMillis() - lastCheckpoint >= INTERVAL_MILLIS;
+	}
+
+	/**
+     * Questo metodo scrive un punto di ripresa e forza il giornale su disco
+	 * @param next prossimo numero da verificare
+	 * @param count numero dei numeri primi trovati fino a {@code next} escluso
+	 * @param time tempo di calcolo in secondi
+    */
+	public synchronized void checkpoint(BigInteger next, int count, double time) {
+		if (writer == null) return;
+		try {
+			commit(next, count, time);
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Questo metodo scrive un punto di ripresa, svuota il buffer e forza il file su disco
+	 * @param next prossimo numero da verificare
+	 * @param count numero dei numeri primi trovati fino a {@code next} escluso
+	 * @param time tempo di calcolo in secondi
+	 * @throws IOException se la scrittura nel file fallisce
+    */
+	private void commit(BigInteger next, int count, double time) throws IOException {
+		writer.write("c " + next + " " + time + " " + count + "\n");
+		writer.flush();
+		stream.getChannel().force(false);
+		lastCheckpoint = System.currentTimeMillis();
+	}
+
+	/**
+     * Questo metodo scrive l'ultimo punto di ripresa e chiude il giornale, che resta su disco per riprendere la ricerca
+	 * @param next prossimo numero da verificare
+	 * @param count numero dei numeri primi trovati fino a {@code next} escluso
+	 * @param time tempo di calcolo in secondi
+    */
+	public synchronized void close(BigInteger next, int count, double time) {
+		checkpoint(next, count, time);
+		fail();
+	}
+
+	/**
+     * Questo metodo chiude ed elimina il giornale al termine della ricerca
+    */
+	public synchronized void delete() {
+		fail();
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			//il giornale resta su disco e viene sostituito dalla prossima ricerca con lo stesso intervallo e lo stesso metodo
+		}
+	}
+
+	/**
+     * Questo metodo chiude il file, le scritture successive vengono ignorate
+    */
+	private void fail() {
+		try {
+			if (writer != null) writer.close();
+		} catch (IOException e) {
+			//il file è già inutilizzabile
+		}
+		writer = null;
+		stream = null;
+	}
+
+	/**
+     * Questo metodo ritorna il prossimo numero da verificare all'ultimo punto di ripresa
+	 * @return prossimo numero da verificare
+    */
+	public BigInteger getNext() {
+		return next;
+	}
+
+	/**
+     * Questo metodo ritorna il tempo di calcolo all'ultimo punto di ripresa
+	 * @return tempo di calcolo in secondi
+    */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+     * Questo metodo ritorna i numeri primi trovati fino all'ultimo punto di ripresa
+	 * @return numeri primi in ordine crescente
+    */
+	public PrimeStore getResults() {
+		return results;
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * La classe {@code PrimalityProgress} raccoglie l'avanzamento di un calcolo di {@link TestPrimality} senza invocare la UI dai thread di calcolo.
+ * <p>
+ * I thread di calcolo incrementano contatori senza lock e un solo consumatore, il timer della UI, legge ogni {@link #FRAME_MILLIS} millisecondi
+ * le differenze dei contatori, quindi la velocità del calcolo non dipende dalla velocità con cui la UI viene aggiornata.
+ * Un numero primo viene contato dopo essere stato aggiunto ai risultati di {@link TestPrimality}, quindi i primi {@link #drainFound()}
+ * numeri dei risultati possono essere letti dalla UI mentre il calcolo continua ad aggiungerne.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class PrimalityProgress {
+
+	/**
+     * Intervallo in millisecondi tra due aggiornamenti della UI, circa 30 aggiornamenti al secondo.
+     */
+	public static final int FRAME_MILLIS = 33;
+
+	/**
+     * Candidati elaborati, inclusi quelli scartati dalla ruota.
+     */
+	private final LongAdder processed = new LongAdder();
+
+	/**
+     * Numeri primi trovati.
+     */
+	private final LongAdder found = new LongAdder();
+
+	/**
+     * Indica se il calcolo è terminato e non verranno aggiunti altri valori.
+     */
+	private volatile boolean finished = false;
+
+	/**
+     * Valori dei contatori letti dall'ultimo aggiornamento, utilizzati solo dal consumatore.
+     */
+	private long lastProcessed = 0, lastFound = 0;
+
+	/**
+     * Questo metodo aggiunge un gruppo di candidati elaborati, dai thread di calcolo
+	 * @param count numero di candidati elaborati
+    */
+	public void addProcessed(long count) {
+		processed.add(count);
+	}
+
+	/**
+     * Questo metodo conta un numero primo trovato, dal thread che lo ha appena aggiunto ai risultati
+    */
+	public void addPrime() {
+		found.increment();
+	}
+
+	/**
+     * Questo metodo segnala che il calcolo è terminato, dopo l'ultimo valore aggiunto
+    */
+	public void finish() {
+		finished = true;
+	}
+
+	/**
+     * Questo metodo indica se il calcolo è terminato<br>Va letto prima dei contatori, così i valori aggiunti prima della fine vengono sempre letti
+	 * @return true se il calcolo è terminato
+    */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+     * Questo metodo ritorna i candidati elaborati dall'ultima lettura, dal consumatore
+	 * @return numero di candidati elaborati dall'ultima lettura
+    */
+	public long drainProcessed() {
+		final long total = processed.sum();
+		final long delta = total - lastProcessed;
+		lastProcessed = total;
+		return delta;
+	}
+
+	/**
+     * Questo metodo ritorna i numeri primi trovati dall'ultima lettura, dal consumatore
+	 * @return numero di numeri primi trovati dall'ultima lettura
+    */
+	public long drainFound() {
+		final long total = found.sum();
+		final long delta = total - lastFound;
+		lastFound = total;
+		return delta;
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * La classe {@code PrimalityStrategies} è il registro dei metodi di calcolo disponibili per {@link TestPrimality}.
+ * <p>
+ * L'indice di una strategia nel registro corrisponde alla scelta del metodo di {@link TestPrimality#getChoice()} e all'indice mostrato dalla finestra di input.
+ * I metodi predefiniti mantengono gli indici storici, mentre le strategie aggiunte con {@link #register(PrimalityStrategy)} seguono in ordine di registrazione,
+ * in modo da poter confrontare nuovi metodi con quelli esistenti senza modificare il ciclo di calcolo.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class PrimalityStrategies {
+
+	/**
+     * Indice dell'algoritmo di Fermat, per cui {@link TestPrimality} aggiunge i numeri primi della base del test.
+     */
+	public static final int FERMAT = 5;
+
+	/**
+     * Strategie registrate, nell'ordine degli indici di scelta.
+     */
+	private static final List<PrimalityStrategy> STRATEGIES = new CopyOnWriteArrayList<>();
+
+	static {
+		STRATEGIES.add(TrialDivisionStrategy.UNTIL_NUM);
+		STRATEGIES.add(TrialDivisionStrategy.UNTIL_NUM_WITH_BREAK);
+		STRATEGIES.add(TrialDivisionStrategy.UNTIL_HALF_NUM);
+		STRATEGIES.add(TrialDivisionStrategy.UNTIL_HALF_NUM_ONLY_ODD);
+		STRATEGIES.add(TrialDivisionStrategy.UNTIL_RADIX_NUM_ONLY_ODD_WITH_BREAK);
+		STRATEGIES.add(TrialDivisionStrategy.FERMAT);
+		STRATEGIES.add(new SegmentedSieveStrategy());
+		STRATEGIES.add(new MillerRabinStrategy(MillerRabin.DEFAULT_ROUNDS));
+		STRATEGIES.add(new BailliePSWStrategy());
+	}
+
+	/**
+     * La classe contiene solo metodi statici e non deve essere istanziata.
+     */
+	private PrimalityStrategies() {
+	}
+
+	/**
+     * Aggiunge una strategia in fondo al registro.
+	 * @param strategy strategia da aggiungere
+	 * @return indice della strategia da utilizzare come scelta del metodo
+	 */
+	public static synchronized int register(PrimalityStrategy strategy) {
+		STRATEGIES.add(strategy);
+		return STRATEGIES.size() - 1;
+	}
+
+	/**
+     * Restituisce la strategia con l'indice dato.
+	 * @param choice indice della strategia
+	 * @return strategia registrata con l'indice dato
+	 */
+	public static PrimalityStrategy get(int choice) {
+		return STRATEGIES.get(choice);
+	}
+
+	/**
+     * Restituisce il numero di strategie registrate.
+	 * @return numero di strategie
+	 */
+	public static int size() {
+		return STRATEGIES.size();
+	}
+
+	/**
+     * Restituisce i nomi delle strategie registrate nell'ordine degli indici, da mostrare nella finestra di input.
+	 * @return nomi delle strategie
+	 */
+	public static String[] names() {
+		return STRATEGIES.stream().map(PrimalityStrategy::getName).toArray(String[]::new);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * L'interfaccia {@code PrimalityStrategy} rappresenta un metodo di calcolo per la ricerca dei numeri primi utilizzabile da {@link TestPrimality}.
+ * <p>
+ * Una strategia fornisce il test di primalità del singolo candidato, in versione {@code long} e {@link BigInteger}, e facoltativamente
+ * una modalità a intervallo per i metodi che elaborano tutti i numeri insieme, come il crivello.
+ * Il ciclo sui candidati, la misura del tempo, l'interruzione, la ruota, il calcolo parallelo e le callback della UI restano in {@link TestPrimality},
+ * quindi una strategia contiene solo la logica del test.
+ * </p>
+ * <p>
+ * Le strategie disponibili sono elencate da {@link PrimalityStrategies}.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public interface PrimalityStrategy {
+
+	/**
+     * Restituisce il nome del metodo di calcolo mostrato all'utente.
+	 * @return nome del metodo
+	 */
+	String getName();
+
+	/**
+     * Test di primalità del singolo candidato.
+     * In caso di interruzione del thread può restituire {@code false}, il chiamante gestisce l'interruzione.
+	 * @param n numero di cui si verifica la primalità
+	 * @return {@code true} se {@code n} è considerato primo dal metodo
+	 */
+	boolean isPrime(BigInteger n);
+
+	/**
+     * Test di primalità del singolo candidato su tipi primitivi, utilizzato quando il massimo dell'intervallo è rappresentabile con un {@code long}.
+     * L'implementazione di default converte il candidato in {@link BigInteger}.
+	 * @param n numero di cui si verifica la primalità
+	 * @return {@code true} se {@code n} è considerato primo dal metodo
+	 */
+	default boolean isPrime(long n) {
+		return isPrime(BigInteger.valueOf(n));
+	}
+
+	/**
+     * Restituisce una strategia equivalente che prova il numero di basi casuali dato, per i metodi probabilistici.
+     * L'implementazione di default restituisce la strategia stessa.
+	 * @param rounds numero di basi casuali
+	 * @return strategia con il numero di basi dato
+	 */
+	default PrimalityStrategy withRounds(int rounds) {
+		return this;
+	}
+
+	/**
+     * Verifica se l'intervallo dato può essere elaborato con {@link #testRange(long, long, LongConsumer, LongConsumer)}.
+     * L'implementazione di default restituisce {@code false} e l'intervallo viene elaborato candidato per candidato.
+	 * @param min numero minimo dell'intervallo
+	 * @param max numero massimo dell'intervallo
+	 * @return {@code true} se la modalità a intervallo è disponibile
+	 */
+	default boolean supportsRange(BigInteger min, BigInteger max) {
+		return false;
+	}
+
+	/**
+     * Elabora tutti i numeri dell'intervallo insieme.
+     * I numeri primi devono essere notificati in ordine crescente e i numeri elaborati devono sommare all'ampiezza dell'intervallo se il calcolo termina.
+     * L'avanzamento procede in ordine da {@code min}: quando la somma notificata è {@code k} i numeri fino a {@code min + k - 1} sono stati elaborati e i loro numeri primi notificati,
+     * così {@link TestPrimality} può scrivere un punto di ripresa in quella posizione.
+     * In caso di interruzione del thread il metodo termina senza completare l'intervallo.
+     * L'implementazione di default verifica i numeri uno alla volta con {@link #isPrime(long)} e notifica l'avanzamento a gruppi di 1024 valori.
+	 * @param min numero minimo dell'intervallo
+	 * @param max numero massimo dell'intervallo
+	 * @param prime callback invocata per ogni numero primo trovato
+	 * @param progress callback invocata con il numero di valori elaborati dall'ultima notifica
+	 */
+	default void testRange(long min, long max, LongConsumer prime, LongConsumer progress) {
+		if (min > max) return;
+		long pending = 0;
+		long n = min;
+		while (!Thread.currentThread().isInterrupted()) {
+			if (isPrime(n)) prime.accept(n);
+			if (++pending == 1024) {
+				progress.accept(pending);
+				pending = 0;
+			}
+			if (n++ == max) break; //il confronto prima dell'incremento evita il trabocco per max uguale a Long.MAX_VALUE
+		}
+		if (pending > 0) progress.accept(pending);
+	}
+
+	/**
+     * Verifica se il metodo riconosce esattamente i numeri primi fino al massimo dato, senza falsi positivi, così i risultati possono essere salvati in {@link PrimeIndex} e riutilizzati da qualsiasi metodo.
+     * L'implementazione di default restituisce {@code false}.
+	 * @param max numero massimo dell'intervallo
+	 * @return {@code true} se i risultati fino a {@code max} sono esatti
+	 */
+	default boolean isExact(BigInteger max) {
+		return false;
+	}
+
+	/**
+     * Restituisce l'ampiezza minima di un sotto intervallo del calcolo parallelo.
+	 * @return ampiezza minima di un sotto intervallo
+	 */
+	default int getMinParallelRange() {
+		return 64;
+	}
+}
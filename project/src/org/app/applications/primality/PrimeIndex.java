@@ -0,0 +1,398 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * La classe {@code PrimeIndex} è l'indice su disco dei numeri primi già calcolati, con cui {@link TestPrimality} risponde alle ricerche su intervalli già elaborati senza ripetere il calcolo.
+ * <p>
+ * L'indice è composto da due file nella cartella data. Il file dei dati {@link #DATA_FILE} contiene blocchi di numeri primi codificati come differenze dal numero precedente,
+ * ognuna scritta con 7 bit per byte, quindi uno o due byte per numero primo. Il file {@link #DIRECTORY_FILE} contiene gli intervalli coperti, disgiunti e ordinati per estremo inferiore,
+ * ognuno con la posizione del suo blocco nel file dei dati.
+ * </p>
+ * <p>
+ * {@link #plan(long, long)} divide un intervallo richiesto in parti coperte, lette con {@link #read(long, long, LongConsumer)}, e in parti scoperte da calcolare,
+ * aggiunte al termine del calcolo con {@link #add(long, long, PrimeStore, int, int)}. Un intervallo aggiunto subito dopo l'ultimo blocco scritto lo estende invece di crearne uno nuovo.
+ * I dati vengono forzati su disco prima di sostituire in modo atomico il file degli intervalli, quindi un'interruzione anomala dell'applicazione lascia al massimo dati non referenziati,
+ * che vengono sovrascritti dall'aggiunta successiva.
+ * </p>
+ * <p>
+ * L'indice contiene solo numeri rappresentabili con un {@code long} calcolati da strategie esatte, vedi {@link PrimalityStrategy#isExact(java.math.BigInteger)}.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class PrimeIndex {
+
+	/**
+     * Nome del file degli intervalli coperti.
+     */
+	public static final String DIRECTORY_FILE = "prime-index.dir";
+
+	/**
+     * Nome del file dei numeri primi codificati.
+     */
+	public static final String DATA_FILE = "prime-index.dat";
+
+	/**
+     * Valore iniziale del file degli intervalli, che ne identifica il formato.
+     */
+	private static final long MAGIC = 0x4641525052494431L;
+
+	/**
+     * Dimensione dei buffer di lettura e scrittura.
+     */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+     * Numero di numeri primi letti tra due controlli dell'interruzione del thread.
+     */
+	private static final int INTERRUPT_CHECK = 1 << 12;
+
+	/**
+     * Intervallo coperto dall'indice e posizione del suo blocco nel file dei dati.
+     */
+	private static final class Interval {
+
+		/**
+         * Estremi inclusi dell'intervallo.
+         */
+		final long from, to;
+
+		/**
+         * Numero dei numeri primi dell'intervallo.
+         */
+		final long count;
+
+		/**
+         * Ultimo numero primo dell'intervallo, o l'estremo inferiore se l'intervallo non ne contiene, da cui viene codificata la differenza del numero successivo.
+         */
+		final long last;
+
+		/**
+         * Posizione e lunghezza in byte del blocco nel file dei dati.
+         */
+		final long offset, length;
+
+		Interval(long from, long to, long count, long last, long offset, long length) {
+			this.from = from;
+			this.to = to;
+			this.count = count;
+			this.last = last;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+     * Parte di un intervallo richiesto, coperta dall'indice o da calcolare.
+     */
+	static final class Span {
+
+		/**
+         * Estremi inclusi della parte.
+         */
+		final long from, to;
+
+		/**
+         * Indica se la parte è coperta dall'indice.
+         */
+		final boolean covered;
+
+		Span(long from, long to, boolean covered) {
+			this.from = from;
+			this.to = to;
+			this.covered = covered;
+		}
+	}
+
+	/**
+     * Percorso del file degli intervalli.
+     */
+	private final Path directoryPath;
+
+	/**
+     * Percorso del file dei dati.
+     */
+	private final Path dataPath;
+
+	/**
+     * Intervalli coperti, ordinati per estremo inferiore, {@code null} finché il file non viene letto.
+     */
+	private List<Interval> intervals;
+
+	/**
+     * Dimensione del file dei dati referenziata dagli intervalli, da cui vengono scritti i nuovi blocchi.
+     */
+	private long dataEnd;
+
+	/**
+     * Crea l'indice nella cartella data, i file vengono letti alla prima richiesta.
+	 * @param directory cartella dei file dell'indice
+	 */
+	public PrimeIndex(Path directory) {
+		this.directoryPath = directory.resolve(DIRECTORY_FILE);
+		this.dataPath = directory.resolve(DATA_FILE);
+	}
+
+	/**
+     * Questo metodo legge il file degli intervalli se non è ancora stato letto<br>Un file mancante, di un altro formato o che referenzia dati oltre la fine del file dei dati produce un indice vuoto
+    */
+	private void load() {
+		if (intervals != null) return;
+		intervals = new ArrayList<>();
+		dataEnd = 0;
+		if (!Files.isRegularFile(directoryPath)) return;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(directoryPath), BUFFER_SIZE))) {
+			if (in.readLong() != MAGIC) return;
+			final int size = in.readInt();
+			final long dataSize = Files.isRegularFile(dataPath) ? Files.size(dataPath) : 0;
+			List<Interval> loaded = new ArrayList<>(size);
+			long end = 0;
+			for (int i = 0; i < size; i++) {
+				Interval interval = new Interval(in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+				if (interval.offset + interval.length > dataSize) return;
+				end = Math.max(end, interval.offset + interval.length);
+				loaded.add(interval);
+			}
+			intervals = loaded;
+			dataEnd = end;
+		} catch (IOException e) {
+			//l'indice illeggibile viene ricostruito con le prossime aggiunte
+		}
+	}
+
+	/**
+     * Questo metodo divide l'intervallo richiesto in parti consecutive, coperte dall'indice o da calcolare<br>Le parti coperte da intervalli adiacenti vengono unite in una sola parte
+	 * @param from estremo inferiore incluso, non negativo
+	 * @param to estremo superiore incluso
+	 * @return parti in ordine crescente che coprono esattamente l'intervallo richiesto
+    */
+	synchronized List<Span> plan(long from, long to) {
+		load();
+		List<Span> spans = new ArrayList<>();
+		long cursor = from;
+		boolean done = false;
+		for (int i = firstEndingFrom(from); i < intervals.size() && !done; i++) {
+			final Interval interval = intervals.get(i);
+			if (interval.from > to) break;
+			if (interval.from > cursor) {
+				spans.add(new Span(cursor, interval.from - 1, false));
+				cursor = interval.from;
+			}
+			final long end = Math.min(interval.to, to);
+			final Span previous = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+			if (previous != null && previous.covered) {
+				spans.set(spans.size() - 1, new Span(previous.from, end, true));
+			} else {
+				spans.add(new Span(cursor, end, true));
+			}
+			done = end == to;
+			cursor = end + 1;
+		}
+		if (!done) spans.add(new Span(cursor, to, false));
+		return spans;
+	}
+
+	/**
+     * Questo metodo legge in ordine crescente i numeri primi di una parte coperta dall'indice<br>Se il thread viene interrotto la lettura termina senza completare la parte
+	 * @param from estremo inferiore incluso
+	 * @param to estremo superiore incluso, coperto dall'indice insieme a tutto l'intervallo
+	 * @param prime callback invocata per ogni numero primo dell'intervallo
+	 * @return {@code true} se la parte è stata letta completamente
+    */
+	synchronized boolean read(long from, long to, LongConsumer prime) {
+		load();
+		try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+			for (int i = firstEndingFrom(from); i < intervals.size(); i++) {
+				final Interval interval = intervals.get(i);
+				if (interval.from > to) break;
+				channel.position(interval.offset);
+				InputStream in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+				long value = interval.from;
+				for (long k = 0; k < interval.count; k++) {
+					value += readVarLong(in);
+					if (value > to) break;
+					if (value >= from) prime.accept(value);
+					if ((k & (INTERRUPT_CHECK - 1)) == 0 && Thread.currentThread().isInterrupted()) return false;
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+     * Questo metodo aggiunge all'indice un intervallo calcolato e non ancora coperto<br>I numeri primi vengono scritti in fondo al file dei dati, che viene forzato su disco prima di sostituire il file degli intervalli<br>Se la scrittura fallisce l'indice resta quello precedente
+	 * @param from estremo inferiore incluso dell'intervallo
+	 * @param to estremo superiore incluso dell'intervallo
+	 * @param primes raccolta che contiene i numeri primi dell'intervallo in ordine crescente
+	 * @param start indice del primo numero primo dell'intervallo nella raccolta
+	 * @param end indice escluso dell'ultimo numero primo dell'intervallo nella raccolta
+    */
+	synchronized void add(long from, long to, PrimeStore primes, int start, int end) {
+		load();
+		final int position = firstEndingFrom(from);
+		if (position < intervals.size() && intervals.get(position).from <= to) return; //l'intervallo è già coperto in parte
+		//un intervallo che segue l'ultimo blocco scritto ne diventa la continuazione
+		final Interval previous = (position > 0) ? intervals.get(position - 1) : null;
+		final boolean extend = previous != null && previous.to == from - 1 && previous.offset + previous.length == dataEnd;
+		long value = extend ? previous.last : from;
+		long written = 0;
+		try {
+			Files.createDirectories(dataPath.getParent());
+		} catch (IOException e) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			channel.truncate(dataEnd);
+			channel.position(dataEnd);
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			for (int i = start; i < end; i++) {
+				final long prime = primes.getLong(i);
+				if (buffer.remaining() < 10) written += drain(channel, buffer);
+				writeVarLong(buffer, prime - value);
+				value = prime;
+			}
+			written += drain(channel, buffer);
+			channel.force(false);
+		} catch (IOException e) {
+			return;
+		}
+		List<Interval> updated = new ArrayList<>(intervals);
+		if (extend) {
+			updated.set(position - 1, new Interval(previous.from, to, previous.count + (end - start), value, previous.offset, previous.length + written));
+		} else {
+			updated.add(position, new Interval(from, to, end - start, value, dataEnd, written));
+		}
+		if (save(updated)) {
+			intervals = updated;
+			dataEnd += written;
+		}
+	}
+
+	/**
+     * Questo metodo sostituisce in modo atomico il file degli intervalli
+	 * @param updated intervalli da scrivere
+	 * @return {@code true} se il file è stato sostituito
+    */
+	private boolean save(List<Interval> updated) {
+		final Path temp = directoryPath.resolveSibling(DIRECTORY_FILE + ".tmp");
+		try (FileOutputStream stream = new FileOutputStream(temp.toFile())) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+			out.writeLong(MAGIC);
+			out.writeInt(updated.size());
+			for (Interval interval : updated) {
+				out.writeLong(interval.from);
+				out.writeLong(interval.to);
+				out.writeLong(interval.count);
+				out.writeLong(interval.last);
+				out.writeLong(interval.offset);
+				out.writeLong(interval.length);
+			}
+			out.flush();
+			stream.getChannel().force(false);
+		} catch (IOException e) {
+			return false;
+		}
+		try {
+			Files.move(temp, directoryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+     * Questo metodo restituisce l'indice del primo intervallo che termina non prima del valore dato, con la ricerca binaria
+	 * @param value valore cercato
+	 * @return indice del primo intervallo con estremo superiore non minore di {@code value}, il numero degli intervalli se non esiste
+    */
+	private int firstEndingFrom(long value) {
+		int low = 0;
+		int high = intervals.size();
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (intervals.get(mid).to < value) low = mid + 1;
+			else high = mid;
+		}
+		return low;
+	}
+
+	/**
+     * Questo metodo scrive nel canale il contenuto del buffer
+	 * @param channel canale del file dei dati
+	 * @param buffer buffer da svuotare
+	 * @return numero di byte scritti
+	 * @throws IOException se la scrittura nel file fallisce
+    */
+	private static long drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		final long written = buffer.remaining();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+		return written;
+	}
+
+	/**
+     * Questo metodo scrive un numero non negativo con 7 bit per byte, il bit più significativo indica se seguono altri byte
+	 * @param buffer buffer in cui scrivere
+	 * @param value numero da scrivere
+    */
+	private static void writeVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+     * Questo metodo legge un numero scritto da {@link #writeVarLong(ByteBuffer, long)}
+	 * @param in flusso da cui leggere
+	 * @return numero letto
+	 * @throws IOException se il flusso termina prima del numero
+    */
+	private static long readVarLong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			final int b = in.read();
+			if (b < 0) throw new EOFException();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * La classe {@code PrimeStore} memorizza in forma compatta i numeri primi trovati da {@link TestPrimality}, in ordine crescente.
+ * <p>
+ * I numeri rappresentabili con un {@code long} sono memorizzati in un array di {@code long} che cresce di metà della sua dimensione quando è pieno,
+ * quindi 8 byte per numero invece di una {@link String} e del suo array di caratteri. I numeri maggiori, che in una ricerca crescente seguono sempre quelli piccoli,
+ * sono memorizzati come {@link BigInteger}.
+ * </p>
+ * <p>
+ * La conversione in decimale avviene solo quando un numero viene letto come stringa, cioè quando viene visualizzato o salvato.
+ * L'ordine crescente permette di rispondere alle interrogazioni su un intervallo con la ricerca binaria.
+ * </p>
+ * <p>
+ * La raccolta ha un solo thread che scrive. Gli array e le dimensioni sono {@code volatile} e ogni dimensione viene scritta dopo l'elemento aggiunto,
+ * quindi la UI può leggere i numeri già contati mentre il calcolo ne aggiunge altri e sostituisce gli array pieni.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class PrimeStore implements Iterable<String> {
+
+	/**
+     * Capacità iniziale degli array dei numeri.
+     */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+     * Numeri rappresentabili con un {@code long}, validi fino a {@link #longCount}.
+     * Un array più grande viene pubblicato solo dopo avervi copiato gli elementi.
+     */
+	private volatile long[] longs = new long[INITIAL_CAPACITY];
+
+	/**
+     * Numero di elementi validi di {@link #longs}, scritto dopo l'elemento aggiunto.
+     */
+	private volatile int longCount = 0;
+
+	/**
+     * Numeri non rappresentabili con un {@code long}, tutti maggiori di quelli di {@link #longs}, validi fino a {@link #bigCount}.
+     */
+	private volatile BigInteger[] bigs = new BigInteger[0];
+
+	/**
+     * Numero di elementi validi di {@link #bigs}, scritto dopo l'elemento aggiunto.
+     */
+	private volatile int bigCount = 0;
+
+	/**
+     * Aggiunge un numero in fondo alla raccolta.
+	 * @param value numero non minore dell'ultimo aggiunto
+	 */
+	public void add(long value) {
+		if (bigCount > 0) {
+			addBig(BigInteger.valueOf(value));
+			return;
+		}
+		long[] array = longs;
+		final int count = longCount;
+		if (count == array.length) {
+			array = Arrays.copyOf(array, array.length + (array.length >> 1));
+			longs = array;
+		}
+		array[count] = value;
+		longCount = count + 1;
+	}
+
+	/**
+     * Aggiunge un numero in fondo alla raccolta, memorizzandolo come {@code long} se possibile.
+	 * @param value numero non minore dell'ultimo aggiunto
+	 */
+	public void add(BigInteger value) {
+		if (bigCount == 0 && value.bitLength() < Long.SIZE) {
+			add(value.longValue());
+		} else {
+			addBig(value);
+		}
+	}
+
+	/**
+     * Aggiunge un numero in fondo ai numeri memorizzati come {@link BigInteger}.
+	 * @param value numero non minore dell'ultimo aggiunto
+	 */
+	private void addBig(BigInteger value) {
+		BigInteger[] array = bigs;
+		final int count = bigCount;
+		if (count == array.length) {
+			array = Arrays.copyOf(array, Math.max(INITIAL_CAPACITY, array.length + (array.length >> 1)));
+			bigs = array;
+		}
+		array[count] = value;
+		bigCount = count + 1;
+	}
+
+	/**
+     * Aggiunge in fondo alla raccolta il numero di un'altra raccolta senza convertirlo.
+	 * @param other raccolta da cui copiare il numero
+	 * @param index indice del numero nell'altra raccolta
+	 */
+	public void addFrom(PrimeStore other, int index) {
+		final int count = other.longCount;
+		if (index < count) {
+			add(other.longs[index]);
+		} else {
+			add(other.bigs[index - count]);
+		}
+	}
+
+	/**
+     * Rimuove i numeri finali oltre la dimensione data.
+	 * @param size numero di elementi da mantenere
+	 */
+	public void truncate(int size) {
+		if (size >= size()) return;
+		final int count = longCount;
+		if (size <= count) {
+			Arrays.fill(bigs, 0, bigCount, null);
+			bigCount = 0;
+			longCount = size;
+		} else {
+			Arrays.fill(bigs, size - count, bigCount, null);
+			bigCount = size - count;
+		}
+	}
+
+	/**
+     * Rimuove tutti i numeri.
+     */
+	public void clear() {
+		longCount = 0;
+		bigCount = 0;
+		longs = new long[INITIAL_CAPACITY];
+		bigs = new BigInteger[0];
+	}
+
+	/**
+     * Restituisce il numero di elementi memorizzati.
+	 * @return numero di elementi
+	 */
+	public int size() {
+		return longCount + bigCount;
+	}
+
+	/**
+     * Verifica se la raccolta è vuota.
+	 * @return {@code true} se non è memorizzato alcun numero
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+     * Verifica se il numero con l'indice dato è memorizzato come {@code long}.
+	 * @param index indice del numero
+	 * @return {@code true} se il numero può essere letto con {@link #getLong(int)}
+	 */
+	public boolean isLong(int index) {
+		return index < longCount;
+	}
+
+	/**
+     * Restituisce il numero con l'indice dato memorizzato come {@code long}.
+	 * @param index indice del numero, minore del numero di elementi memorizzati come {@code long}
+	 * @return numero con l'indice dato
+	 */
+	public long getLong(int index) {
+		if (index >= longCount) throw new IndexOutOfBoundsException(index);
+		return longs[index];
+	}
+
+	/**
+     * Restituisce il numero con l'indice dato.
+	 * @param index indice del numero
+	 * @return numero con l'indice dato
+	 */
+	public BigInteger get(int index) {
+		final int count = longCount;
+		if (index < count) return BigInteger.valueOf(longs[index]);
+		if (index - count >= bigCount) throw new IndexOutOfBoundsException(index);
+		return bigs[index - count];
+	}
+
+	/**
+     * Restituisce in decimale il numero con l'indice dato.
+     * Il numero può essere letto da un altro thread mentre ne vengono aggiunti altri, se il suo indice è minore di una dimensione già osservata.
+	 * @param index indice del numero
+	 * @return rappresentazione decimale del numero
+	 */
+	public String toString(int index) {
+		final int count = longCount;
+		if (index < count) return Long.toString(longs[index]);
+		if (index - count >= bigCount) throw new IndexOutOfBoundsException(index);
+		return bigs[index - count].toString();
+	}
+
+	/**
+     * Restituisce in decimale l'ultimo numero memorizzato.
+	 * @return rappresentazione decimale dell'ultimo numero, stringa vuota se la raccolta è vuota
+	 */
+	public String last() {
+		return isEmpty() ? "" : toString(size() - 1);
+	}
+
+	/**
+     * Restituisce l'indice del primo numero maggiore o uguale al valore dato, con la ricerca binaria.
+	 * @param value valore cercato
+	 * @return indice del primo numero non minore di {@code value}, {@link #size()} se non esiste
+	 */
+	public int lowerBound(BigInteger value) {
+		final int count = longCount;
+		if (value.bitLength() < Long.SIZE) {
+			final long[] array = longs;
+			final long v = value.longValue();
+			int low = 0;
+			int high = count;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (array[mid] < v) low = mid + 1;
+				else high = mid;
+			}
+			return low; //i numeri grandi sono tutti maggiori di value
+		}
+		final BigInteger[] array = bigs;
+		int low = 0;
+		int high = bigCount;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (array[mid].compareTo(value) < 0) low = mid + 1;
+			else high = mid;
+		}
+		return count + low;
+	}
+
+	/**
+     * Conta i numeri compresi nell'intervallo dato.
+	 * @param from estremo inferiore incluso
+	 * @param to estremo superiore incluso
+	 * @return numero di elementi compresi tra {@code from} e {@code to}
+	 */
+	public int count(BigInteger from, BigInteger to) {
+		if (from.compareTo(to) > 0) return 0;
+		return lowerBound(to.add(BigInteger.ONE)) - lowerBound(from);
+	}
+
+	/**
+     * Restituisce un iteratore che converte in decimale ogni numero solo quando viene letto.
+	 * @return iteratore sulle rappresentazioni decimali in ordine crescente
+	 */
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public String next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return PrimeStore.this.toString(index++);
+			}
+		};
+	}
+}
@@ -15,12 +15,24 @@ package org.app.applications.primality;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * La classe {@code SavePrimality} gestisce la scrittura di una lista di stringhe formattate su un file TSV (Tab-Separated Values).
  * <p>
  * Ogni volta che viene chiamato il metodo {@link #newFile()}, il file viene ricreato, ovvero viene eliminato il file esistente e ne viene creato uno nuovo con il contenuto fornito.
  * </p>
+ * <p>
+ * In alternativa il file può essere scritto durante la ricerca: {@link #open(String)} scrive l'intestazione con spazi riservati per il tempo e il numero dei risultati,
+ * {@link #append(long)} e {@link #append(BigInteger)} aggiungono i numeri primi attraverso un buffer svuotato su un {@link FileChannel} almeno ogni {@link #FLUSH_INTERVAL} millisecondi,
+ * e {@link #close(int, double)} scrive i valori finali negli spazi riservati. In questo modo i risultati non devono essere tenuti in memoria una seconda volta
+ * e, se l'applicazione termina in modo anomalo, il file contiene i numeri primi trovati fino all'ultimo svuotamento del buffer.
+ * </p>
  * 
  * @author Vittorio Piotti
  * @version 1.0
@@ -40,6 +52,46 @@ public class SavePrimality {
      */
 	private String path;
 
+	/**
+     * Dimensione del buffer di scrittura durante la ricerca.
+     */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+     * Intervallo massimo in millisecondi tra due svuotamenti del buffer durante la ricerca.
+     */
+	public static final long FLUSH_INTERVAL = 1000;
+
+	/**
+     * Numero di caratteri riservati nell'intestazione per il tempo e per il numero dei risultati.
+     */
+	private static final int FIELD_WIDTH = 24;
+
+	/**
+     * Canale del file scritto durante la ricerca, {@code null} se il file non è aperto o se la scrittura è fallita.
+     */
+	private FileChannel channel;
+
+	/**
+     * Buffer dei numeri primi non ancora scritti nel canale.
+     */
+	private ByteBuffer buffer;
+
+	/**
+     * Posizione nel file dello spazio riservato per il tempo di calcolo.
+     */
+	private long timePosition;
+
+	/**
+     * Posizione nel file dello spazio riservato per il numero dei risultati.
+     */
+	private long countPosition;
+
+	/**
+     * Istante dell'ultimo svuotamento del buffer.
+     */
+	private long lastFlush;
+
 	/**
      * Costruttore della classe {@code SavePrimality}.
      * <p>
@@ -69,4 +121,159 @@ public class SavePrimality {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+     * Costruttore della classe {@code SavePrimality} per la scrittura durante la ricerca.
+     *
+     * @param path Il percorso completo del file in cui salvare i risultati.
+     */
+	public SavePrimality(String path) {
+		this("", path);
+	}
+
+	/**
+     * Crea il file e scrive l'intestazione seguita dagli spazi riservati per il tempo di calcolo e per il numero dei risultati.
+     * Se il file non può essere creato le scritture successive vengono ignorate.
+     *
+     * @param header righe iniziali dell'intestazione, ognuna terminata da un ritorno a capo
+     */
+	public void open(String header) {
+		try {
+			channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			final String timeLabel = "Tempo calcolo: ";
+			final String countLabel = "Numeri calcolati: ";
+			final byte[] head = header.getBytes(StandardCharsets.UTF_8);
+			timePosition = head.length + timeLabel.length();
+			countPosition = timePosition + FIELD_WIDTH + 1 + countLabel.length();
+			put(head);
+			put((timeLabel + pad("") + "\n" + countLabel + pad("") + "\n").getBytes(StandardCharsets.UTF_8));
+			lastFlush = System.currentTimeMillis();
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Aggiunge un numero primo al file senza convertirlo in {@link String}.
+     *
+     * @param prime numero primo trovato
+     */
+	public void append(long prime) {
+		if (channel == null) return;
+		try {
+			if (buffer.remaining() < 21) flush();
+			//cifre scritte dalla meno significativa in fondo allo spazio necessario
+			int digits = 1;
+			for (long rest = prime / 10; rest > 0; rest /= 10) digits++;
+			final int start = buffer.position();
+			long value = prime;
+			for (int k = digits - 1; k >= 0; k--) {
+				buffer.put(start + k, (byte) ('0' + value % 10));
+				value /= 10;
+			}
+			buffer.position(start + digits);
+			buffer.put((byte) '\n');
+			flushIfDue();
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Aggiunge un numero primo di qualsiasi dimensione al file.
+     *
+     * @param prime numero primo trovato
+     */
+	public void append(BigInteger prime) {
+		if (channel == null) return;
+		try {
+			put((prime.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+			flushIfDue();
+		} catch (IOException e) {
+			fail();
+		}
+	}
+
+	/**
+     * Svuota il buffer, scrive il tempo di calcolo e il numero dei risultati negli spazi riservati dell'intestazione e chiude il file.
+     *
+     * @param count numero dei risultati
+     * @param time tempo di calcolo in secondi
+     */
+	public void close(int count, double time) {
+		if (channel == null) return;
+		try {
+			flush();
+			channel.write(ByteBuffer.wrap(pad(time + "s").getBytes(StandardCharsets.UTF_8)), timePosition);
+			channel.write(ByteBuffer.wrap(pad(Integer.toString(count)).getBytes(StandardCharsets.UTF_8)), countPosition);
+			channel.close();
+		} catch (IOException e) {
+			fail();
+		}
+		channel = null;
+	}
+
+	/**
+     * Scrive dei byte nel buffer, svuotandolo nel canale quando è pieno.
+     *
+     * @param bytes byte da scrivere
+     * @throws IOException se la scrittura nel file fallisce
+     */
+	private void put(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!buffer.hasRemaining()) flush();
+			final int length = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	/**
+     * Svuota il buffer se dall'ultimo svuotamento è trascorso almeno {@link #FLUSH_INTERVAL}.
+     *
+     * @throws IOException se la scrittura nel file fallisce
+     */
+	private void flushIfDue() throws IOException {
+		if (System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL) flush();
+	}
+
+	/**
+     * Scrive nel canale il contenuto del buffer.
+     *
+     * @throws IOException se la scrittura nel file fallisce
+     */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+		lastFlush = System.currentTimeMillis();
+	}
+
+	/**
+     * Chiude il file dopo un errore di scrittura, le scritture successive vengono ignorate.
+     */
+	private void fail() {
+		try {
+			if (channel != null) channel.close();
+		} catch (IOException e) {
+			//il file è già inutilizzabile
+		}
+		channel = null;
+	}
+
+	/**
+     * Completa un valore con spazi fino alla larghezza riservata nell'intestazione.
+     *
+     * @param value valore da scrivere
+     * @return valore seguito da spazi, lungo esattamente {@link #FIELD_WIDTH} caratteri
+     */
+	private static String pad(String value) {
+		final StringBuilder padded = new StringBuilder(value);
+		while (padded.length() < FIELD_WIDTH) padded.append(' ');
+		return padded.substring(0, FIELD_WIDTH);
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * La classe {@code SegmentedSieve} implementa il crivello di Eratostene segmentato per trovare tutti i numeri primi di un intervallo {@code [min, max]}.
+ * <p>
+ * L'intervallo viene suddiviso in segmenti di dimensione {@link #SEGMENT_SIZE}, pensata per restare nella cache del processore, e ogni segmento viene crivellato
+ * con una tabella precalcolata dei numeri primi base fino alla radice di {@code max}. La memoria utilizzata resta quindi limitata indipendentemente dall'ampiezza dell'intervallo.
+ * </p>
+ * <p>
+ * I segmenti vengono prodotti uno alla volta con {@link #nextSegment()} in modo che il chiamante possa gestire interruzioni e callback tra un segmento e l'altro.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class SegmentedSieve {
+
+	/**
+     * Numero di valori crivellati per ogni segmento.
+     * Il valore corrisponde a 32 KiB di memoria, dimensione tipica della cache L1 dati.
+     */
+	public static final int SEGMENT_SIZE = 32768;
+
+	/**
+     * Valore massimo supportato per il limite superiore dell'intervallo.
+     * Oltre questo valore la tabella dei numeri primi base supererebbe i 10^8 elementi crivellati.
+     */
+	public static final long MAX_LIMIT = 10_000_000_000_000_000L;
+
+	/**
+     * Limite superiore dell'intervallo di ricerca.
+     */
+	private final long max;
+
+	/**
+     * Tabella dei numeri primi base fino alla radice di {@code max}.
+     */
+	private final int[] basePrimes;
+
+	/**
+     * Segmento corrente: {@code composite[k]} vale {@code true} se {@code low + k} è composto.
+     */
+	private final boolean[] composite = new boolean[SEGMENT_SIZE];
+
+	/**
+     * Primo valore del segmento corrente.
+     */
+	private long low;
+
+	/**
+     * Numero di valori validi nel segmento corrente.
+     */
+	private int length;
+
+	/**
+     * Questo costruttore prepara il crivello per l'intervallo dato calcolando la tabella dei numeri primi base.
+	 * @param min valore minimo dell'intervallo di ricerca
+	 * @param max valore massimo dell'intervallo di ricerca, non superiore a {@link #MAX_LIMIT}
+	 */
+	public SegmentedSieve(long min, long max) {
+		this.max = max;
+		this.low = min;
+		this.length = 0;
+		long limit = (long) Math.sqrt((double) max);
+		while (limit * limit > max) limit--;
+		while ((limit + 1) * (limit + 1) <= max) limit++;
+		this.basePrimes = SmallPrimes.upTo((int) limit);
+	}
+
+	/**
+     * Verifica se il crivello può essere applicato al limite superiore dato.
+	 * @param max valore massimo dell'intervallo di ricerca
+	 * @return {@code true} se {@code max} non supera {@link #MAX_LIMIT}
+	 */
+	public static boolean supports(BigInteger max) {
+		return max.compareTo(BigInteger.valueOf(MAX_LIMIT)) <= 0;
+	}
+
+	/**
+     * Crivella il segmento successivo dell'intervallo.
+	 * @return {@code true} se è stato prodotto un nuovo segmento, {@code false} se l'intervallo è terminato
+	 */
+	public boolean nextSegment() {
+		low += length;
+		if (low > max) return false;
+		length = (int) Math.min(SEGMENT_SIZE, max - low + 1);
+		Arrays.fill(composite, 0, length, false);
+		//0 e 1 non sono primi
+		for (long v = low; v < 2 && v < low + length; v++) {
+			composite[(int) (v - low)] = true;
+		}
+		final long high = low + length - 1;
+		for (int p : basePrimes) {
+			long square = (long) p * p;
+			if (square > high) break;
+			long first = Math.max(square, ((low + p - 1) / p) * p);
+			for (long m = first; m <= high; m += p) {
+				composite[(int) (m - low)] = true;
+			}
+		}
+		return true;
+	}
+
+	/**
+     * Questo metodo ritorna il primo valore del segmento corrente.
+	 * @return primo valore del segmento corrente
+	 */
+	public long getLow() {
+		return low;
+	}
+
+	/**
+     * Questo metodo ritorna il numero di valori del segmento corrente.
+	 * @return numero di valori del segmento corrente
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+     * Verifica se il valore alla posizione data del segmento corrente è primo.
+	 * @param offset posizione nel segmento, compresa tra 0 e {@link #getLength()} escluso
+	 * @return {@code true} se {@code getLow() + offset} è primo
+	 */
+	public boolean isPrime(int offset) {
+		return !composite[offset];
+	}
+}
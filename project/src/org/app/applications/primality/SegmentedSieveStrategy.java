@@ -0,0 +1,74 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * La classe {@code SegmentedSieveStrategy} è la strategia del crivello di Eratostene segmentato.
+ * <p>
+ * Gli intervalli entro {@link SegmentedSieve#MAX_LIMIT} vengono elaborati con la modalità a intervallo, un segmento alla volta;
+ * oltre tale limite, o per un singolo candidato, viene utilizzata la divisione per i numeri primi fino alla radice di {@link SmallPrimes}.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class SegmentedSieveStrategy implements PrimalityStrategy {
+
+	@Override
+	public String getName() {
+		return "Crivello di Eratostene segmentato";
+	}
+
+	@Override
+	public boolean isPrime(long n) {
+		return SmallPrimes.isPrime(n);
+	}
+
+	@Override
+	public boolean isPrime(BigInteger n) {
+		return SmallPrimes.isPrime(n);
+	}
+
+	@Override
+	public boolean supportsRange(BigInteger min, BigInteger max) {
+		return SegmentedSieve.supports(max);
+	}
+
+	@Override
+	public void testRange(long min, long max, LongConsumer prime, LongConsumer progress) {
+		SegmentedSieve sieve = new SegmentedSieve(min, max);
+		//ciclo while che scorre i segmenti da min a max, l'interruzione e l'avanzamento sono verificati una volta per segmento
+		while (!Thread.currentThread().isInterrupted() && sieve.nextSegment()) {
+			final long low = sieve.getLow();
+			final int length = sieve.getLength();
+			//ciclo for di k che scorre i valori del segmento
+			for (int k = 0; k < length; k++) {
+				if (sieve.isPrime(k)) prime.accept(low + k);
+			}
+			progress.accept(length);
+		}
+	}
+
+	@Override
+	public boolean isExact(BigInteger max) {
+		return true;
+	}
+
+	@Override
+	public int getMinParallelRange() {
+		return SegmentedSieve.SEGMENT_SIZE;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+
+/**
+ * La classe {@code SmallPrimes} mantiene una tabella condivisa dei numeri primi piccoli, memorizzata come {@code int[]}.
+ * <p>
+ * La tabella viene calcolata con il crivello di Eratostene ed estesa solo quando viene richiesto un limite non ancora coperto,
+ * raddoppiando il limite precedente in modo che una ricerca su candidati crescenti la ricalcoli poche volte.
+ * Il limite massimo è {@link #MAX_LIMIT}, sufficiente per i numeri primi base del {@link SegmentedSieve}.
+ * </p>
+ * <p>
+ * La tabella è utilizzata dalla divisione per tentativi, che divide ogni candidato solo per i numeri primi fino alla sua radice,
+ * dal crivello segmentato e come filtro iniziale dei test probabilistici.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public final class SmallPrimes {
+
+	/**
+     * Limite massimo della tabella, pari alla radice di {@link SegmentedSieve#MAX_LIMIT}.
+     */
+	public static final int MAX_LIMIT = 100_000_000;
+
+	/**
+     * Limite iniziale della tabella.
+     */
+	private static final int INITIAL_LIMIT = 1 << 16;
+
+	/**
+     * Maschera utilizzata per controllare l'interruzione del thread una volta ogni 65536 divisori.
+     */
+	private static final int INTERRUPT_MASK = 0xFFFF;
+
+	/**
+     * Tabella ordinata dei numeri primi fino a {@link #limit}, sostituita e mai modificata quando viene estesa.
+     */
+	private static volatile int[] primes = sieve(INITIAL_LIMIT);
+
+	/**
+     * Limite fino a cui è stata calcolata {@link #primes}.
+     */
+	private static int limit = INITIAL_LIMIT;
+
+	/**
+     * La classe contiene solo metodi statici e non deve essere istanziata.
+     */
+	private SmallPrimes() {
+	}
+
+	/**
+     * Restituisce una tabella che comprende tutti i numeri primi fino al limite dato, estendendo quella condivisa solo se non è sufficiente.
+     * La tabella può contenere numeri primi oltre il limite e non deve essere modificata dal chiamante.
+	 * @param bound limite superiore incluso, non superiore a {@link #MAX_LIMIT}
+	 * @return tabella ordinata dei numeri primi, almeno fino a {@code bound}
+	 */
+	public static int[] upTo(int bound) {
+		final int[] table = primes;
+		if (table[table.length - 1] >= bound) return table;
+		return grow(bound);
+	}
+
+	/**
+     * Estende la tabella condivisa fino a comprendere il limite dato.
+	 * @param bound limite superiore incluso
+	 * @return tabella ordinata dei numeri primi, almeno fino a {@code bound}
+	 */
+	private static synchronized int[] grow(int bound) {
+		if (bound > limit) {
+			final int newLimit = (int) Math.min(MAX_LIMIT, Math.max(bound, 2L * limit));
+			primes = sieve(newLimit);
+			limit = newLimit;
+		}
+		return primes;
+	}
+
+	/**
+     * Calcola con il crivello di Eratostene semplice tutti i numeri primi fino al limite dato.
+     * Vengono memorizzati solo i numeri dispari per dimezzare la memoria necessaria.
+	 * @param limit limite superiore incluso
+	 * @return tabella ordinata dei numeri primi fino a {@code limit}
+	 */
+	public static int[] sieve(int limit) {
+		if (limit < 2) return new int[0];
+		//il bit k rappresenta il numero dispari 2k + 1
+		BitSet composite = new BitSet(limit / 2 + 1);
+		int count = 1;
+		for (int k = 1; 2L * k + 1 <= limit; k++) {
+			if (composite.get(k)) continue;
+			count++;
+			long p = 2L * k + 1;
+			for (long m = p * p; m <= limit; m += 2 * p) {
+				composite.set((int) (m / 2));
+			}
+		}
+		int[] primes = new int[count];
+		primes[0] = 2;
+		int c = 1;
+		for (int k = 1; 2L * k + 1 <= limit; k++) {
+			if (!composite.get(k)) primes[c++] = 2 * k + 1;
+		}
+		return primes;
+	}
+
+	/**
+     * Test di primalità con la divisione per i soli numeri primi fino alla radice del numero, uscendo dal ciclo appena possibile.
+     * Oltre {@link #MAX_LIMIT} vengono provati tutti i divisori dispari.
+     * In caso di interruzione del thread restituisce {@code false}, lasciando al chiamante la gestione dell'interruzione.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se {@code i} è primo
+	 */
+	public static boolean isPrime(long i) {
+		if (i < 2) return false;
+		final long root = LongPrimality.sqrt(i); //divisore massimo, calcolato una sola volta
+		final int[] table = upTo((int) Math.min(root, MAX_LIMIT));
+		for (int k = 0; k < table.length; k++) {
+			final int p = table[k];
+			if (p > root) return true;
+			if ((k & INTERRUPT_MASK) == 0 && Thread.currentThread().isInterrupted()) return false;
+			if (i % p == 0) return false;
+		}
+		for (long j = table[table.length - 1] + 2L; j <= root; j += 2) {
+			if ((j & INTERRUPT_MASK) == 1 && Thread.currentThread().isInterrupted()) return false;
+			if (i % j == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+     * Test di primalità con la divisione per i soli numeri primi fino alla radice del numero, per numeri di qualsiasi dimensione.
+	 * @param i numero di cui si verifica la primalità
+	 * @return {@code true} se {@code i} è primo
+	 * @see #isPrime(long)
+	 */
+	public static boolean isPrime(BigInteger i) {
+		if (i.bitLength() < Long.SIZE) return isPrime(i.longValue());
+		final BigInteger root = i.sqrt(); //divisore massimo, calcolato una sola volta
+		final int[] table = upTo(MAX_LIMIT);
+		for (int k = 0; k < table.length; k++) {
+			if ((k & INTERRUPT_MASK) == 0 && Thread.currentThread().isInterrupted()) return false;
+			if (i.mod(BigInteger.valueOf(table[k])).signum() == 0) return false;
+		}
+		final BigInteger two = BigInteger.valueOf(2);
+		long count = 0;
+		for (BigInteger j = BigInteger.valueOf(table[table.length - 1] + 2L); j.compareTo(root) <= 0; j = j.add(two)) {
+			if ((++count & INTERRUPT_MASK) == 0 && Thread.currentThread().isInterrupted()) return false;
+			if (i.mod(j).signum() == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+     * Verifica se il numero dato è divisibile per un numero primo minore del limite dato, da utilizzare come filtro prima dei test probabilistici.
+	 * @param n numero da verificare, maggiore o uguale a {@code bound}
+	 * @param bound limite superiore escluso dei divisori provati
+	 * @return {@code true} se {@code n} è divisibile per un numero primo minore di {@code bound}
+	 */
+	public static boolean hasSmallFactor(BigInteger n, int bound) {
+		for (int p : upTo(bound)) {
+			if (p >= bound) break;
+			if (n.mod(BigInteger.valueOf(p)).signum() == 0) return true;
+		}
+		return false;
+	}
+}
@@ -14,11 +14,9 @@ package org.app.applications.primality;
 
 
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
- * La classe sviluppa e garantisce logica dei metodi di calcolo per il test di primalità<br>La classe utilizza BigInteger per gestire numeri di centinaia di cifre<br>La classe implementa Runnable in quanto le operazioni di calcolo impiegano un dispendio di tempo tale per cui il thread deve essere gestito in modo che non interferisca con altri thread impedendone la corretta esecuzione<br>I metodi di calcolo non sono ottimizzati per un tempo di esecuzione minore in quanto presentano due colback in App di cui la prima per aggiornare la UI e di cui la seconda per salvare o dati con Log
+ * La classe sviluppa e garantisce logica dei metodi di calcolo per il test di primalità<br>La classe utilizza BigInteger per gestire numeri di centinaia di cifre<br>La classe implementa Runnable in quanto le operazioni di calcolo impiegano un dispendio di tempo tale per cui il thread deve essere gestito in modo che non interferisca con altri thread impedendone la corretta esecuzione<br>L'avanzamento e i numeri primi trovati vengono raccolti in {@link PrimalityProgress} senza invocare la UI dal thread di calcolo, la UI li legge con un proprio timer
  * @author Vittorio Piotti
  * @version 1.0
  * @since 16-10-2023
@@ -28,7 +26,7 @@ public class TestPrimality implements Runnable {
 
 	/**
      * Rappresenta la scelta del metodo di calcolo utilizzato per la ricerca dei numeri primi.
-     * Questo valore viene usato per determinare quale algoritmo di calcolo dei numeri primi utilizzare.
+     * Questo valore è l'indice della strategia nel registro {@link PrimalityStrategies}.
      */
 	private int choice; //corrisponde alla scelta del metodo di calcolo
 
@@ -51,10 +49,36 @@ public class TestPrimality implements Runnable {
 	private double time; //corrisponde al tempo impiegato per la ricerca dei numeri primi
 
 	/**
-     * Una lista di stringhe che contiene tutti i numeri primi trovati all'interno dell'intervallo specificato.
-     * Ogni stringa rappresenta un numero primo trovato durante la ricerca.
+     * Raccolta compatta che contiene tutti i numeri primi trovati all'interno dell'intervallo specificato, in ordine crescente.
+     * I numeri vengono convertiti in decimale solo quando sono visualizzati o salvati.
      */
-	private List < String > results = new ArrayList < >(); //corrisponde a tutti i numeri primi trovati nell'intervallo dato
+	private final PrimeStore results = new PrimeStore(); //corrisponde a tutti i numeri primi trovati nell'intervallo dato
+
+	/**
+     * Numero di basi casuali provate dall'algoritmo di Miller-Rabin per i numeri non coperti dalle basi deterministiche.
+     * Per i numeri minori di {@link MillerRabin#DETERMINISTIC_LIMIT} il valore non viene utilizzato in quanto il test è esatto.
+     */
+	private int rounds = MillerRabin.DEFAULT_ROUNDS;
+
+	/**
+     * Modulo della ruota utilizzata per generare i candidati, {@link WheelIterator#WHEEL_NONE} per verificare tutti i numeri dell'intervallo.
+     */
+	private int wheel = WheelIterator.WHEEL_NONE;
+
+	/**
+     * Indica se il calcolo deve essere sviluppato in parallelo suddividendo l'intervallo tra più thread.
+     */
+	private boolean parallel = false;
+
+	/**
+     * Numero di thread utilizzati dal calcolo parallelo.
+     */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+     * File in cui vengono scritti i numeri primi durante la ricerca, {@code null} se il salvataggio avviene solo al termine.
+     */
+	private SavePrimality save;
 
 	/**
      * Callback invocata alla fine dell'esecuzione del metodo {@link #run()}.
@@ -63,34 +87,62 @@ public class TestPrimality implements Runnable {
 	private Runnable stopCalc;
 
 	/**
-     * Callback utilizzato per aggiungere un risultato alla visualizzazione dell'interfaccia utente.
-     * Questo callback è invocato ogni volta che viene trovato un numero primo e serve per aggiornare la visualizzazione dei risultati.
+     * Avanzamento del calcolo letto dalla UI, {@code null} per i sotto intervalli del calcolo parallelo.
+     * I candidati elaborati e i numeri primi trovati vengono aggiunti senza invocare la UI, che legge l'avanzamento con un proprio timer.
      */
-	private Runnable appendResult;
+	private PrimalityProgress progress;
 
 	/**
-     * Callback invocato ad ogni iterazione della ricerca per aggiornare la barra di progresso nell'interfaccia utente.
-     * Questo callback è utilizzato per incrementare la barra di caricamento e fornire un feedback visivo sul progresso della ricerca.
+     * Callback invocato ad ogni candidato dei sotto intervalli del calcolo parallelo, {@code null} per il test originale.
      */
 	private Runnable incrementProgressBar;
 
+	/**
+     * Giornale su disco in cui vengono scritti i numeri primi trovati e i punti di ripresa, {@code null} se la ricerca non può essere ripresa.
+     */
+	private PrimalityCheckpoint checkpoint;
+
+	/**
+     * Posizione dell'ultimo punto di ripresa scritto: tutti i numeri minori sono stati verificati, {@code null} se non ne è stato scritto alcuno.
+     * Viene aggiornata anche dai thread del calcolo parallelo.
+     */
+	private volatile BigInteger position;
+
+	/**
+     * Indica se i numeri primi del giornale devono essere aggiunti ai risultati all'avvio di {@link #run()}, perché la ricerca riprende da un punto di ripresa.
+     */
+	private boolean resumed = false;
+
+	/**
+     * Tempo di calcolo in secondi delle esecuzioni precedenti di una ricerca ripresa, 0 per una nuova ricerca.
+     */
+	private double timeOffset = 0;
+
+	/**
+     * Istante di inizio del calcolo, utilizzato per il tempo scritto nei punti di ripresa.
+     */
+	private long startTime;
+
+	/**
+     * Indice su disco dei numeri primi già calcolati, {@code null} per calcolare sempre tutto l'intervallo.
+     */
+	private PrimeIndex index;
+
 	/**
      * Questo costruttore definisce l'istanza degli attributi min e max rispettivamente i valori dell'intervallo entro cui ricercare numeri primi.
 	 * @param min     				Stringa rappresentante il valore minimo inserito in input per l'intervallo di ricerca dei numeri primi
 	 * @param max     				Stringa rappresentante il valore massimo inserito in input per l'intervallo di ricerca dei numeri primi
 	 * @param choice  				Rappresenta il numero del metodo scelto per il calcolo della ricerca dei numeri primi
 	 * @param stopCalc  	Callback definita nel  fa riferimento a SaveInFile per salvare i risultati e  App per visualizzare i risultati
-	 * @param incrementProgressBar 	Callback definita nel  ed invocata ad ogni numero edll'intervallo di ricerca fa riferimento a App per incrementare la barra di caricamento
-	 * @param appendResult 	Callback definita nel  ed invocata ad ogni numero edll'intervallo di ricerca fa riferimento a App per incrementare la barra di caricamento
+	 * @param progress 	Avanzamento del calcolo in cui vengono contati i candidati e aggiunti i numeri primi trovati, letto da App per aggiornare la UI
 
 	*/
-	public TestPrimality(String min, String max, int choice, Runnable stopCalc, Runnable incrementProgressBar,Runnable appendResult) {
+	public TestPrimality(String min, String max, int choice, Runnable stopCalc, PrimalityProgress progress) {
         this.min = new BigInteger(min);
 		this.max = new BigInteger(max);
 		this.choice = choice;
 		this.stopCalc = stopCalc;
-		this.appendResult = appendResult;
-		this.incrementProgressBar = incrementProgressBar;
+		this.progress = progress;
 
 	}
 
@@ -121,7 +173,7 @@ public class TestPrimality implements Runnable {
      * Questo metodo ritorna la lista dei risultati
 	 * @return risultati dei numeri primi derivati dai calcoli
     */
-	public List < String > getResults() {
+	public PrimeStore getResults() {
 		return results;
 	}
 
@@ -166,6 +218,151 @@ public class TestPrimality implements Runnable {
 		this.min = new BigInteger(min);
 	}
 
+	/**
+     * Questo metodo ritorna il numero di basi casuali provate dall'algoritmo di Miller-Rabin da {@link MillerRabin#DETERMINISTIC_LIMIT} in su.
+	 * @return numero di basi casuali
+    */
+	public int getRounds() {
+		return rounds;
+	}
+
+	/**
+     * Questo metodo imposta il numero di basi casuali provate dall'algoritmo di Miller-Rabin da {@link MillerRabin#DETERMINISTIC_LIMIT} in su.
+	 * @param rounds numero di basi casuali
+    */
+	public void setRounds(int rounds) {
+		this.rounds = rounds;
+	}
+
+	/**
+     * Questo metodo ritorna il modulo della ruota utilizzata per generare i candidati.
+	 * @return modulo della ruota
+    */
+	public int getWheel() {
+		return wheel;
+	}
+
+	/**
+     * Questo metodo imposta il modulo della ruota utilizzata per generare i candidati.
+	 * @param wheel {@link WheelIterator#WHEEL_NONE}, {@link WheelIterator#WHEEL_30} o {@link WheelIterator#WHEEL_210}
+    */
+	public void setWheel(int wheel) {
+		this.wheel = wheel;
+	}
+
+	/**
+     * Questo metodo ritorna se il calcolo viene sviluppato in parallelo.
+	 * @return true se il calcolo è parallelo
+    */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+     * Questo metodo imposta se il calcolo deve essere sviluppato in parallelo.
+	 * @param parallel true per sviluppare il calcolo in parallelo
+    */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+     * Questo metodo ritorna il numero di thread utilizzati dal calcolo parallelo.
+	 * @return numero di thread
+    */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+     * Questo metodo imposta il numero di thread utilizzati dal calcolo parallelo.
+	 * @param parallelism numero di thread, almeno 1
+    */
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+     * Questo metodo imposta il file in cui scrivere i numeri primi durante la ricerca<br>Il file deve essere già aperto con {@link SavePrimality#open(String)} e viene chiuso al termine di {@link #run()} scrivendo il tempo e il numero dei risultati
+	 * @param save file in cui scrivere i numeri primi, {@code null} per non scrivere durante la ricerca
+    */
+	public void setSave(SavePrimality save) {
+		this.save = save;
+	}
+
+	/**
+     * Questo metodo imposta il giornale in cui scrivere i numeri primi trovati e i punti di ripresa durante la ricerca<br>Il giornale deve essere già aperto con {@link PrimalityCheckpoint#create(String, String, int)}, al termine di {@link #run()} viene eliminato se la ricerca è completa e chiuso con l'ultimo punto di ripresa se la ricerca è stata interrotta
+	 * @param checkpoint giornale della ricerca, {@code null} per non scrivere punti di ripresa
+    */
+	public void setCheckpoint(PrimalityCheckpoint checkpoint) {
+		this.checkpoint = checkpoint;
+		this.resumed = false;
+	}
+
+	/**
+     * Questo metodo imposta l'indice su disco dei numeri primi già calcolati<br>Se il metodo di calcolo è esatto e l'intervallo è rappresentabile con un {@code long} le parti coperte dall'indice vengono lette invece di essere calcolate, e le parti calcolate vengono aggiunte all'indice
+	 * @param index indice dei numeri primi, {@code null} per calcolare sempre tutto l'intervallo
+    */
+	public void setIndex(PrimeIndex index) {
+		this.index = index;
+	}
+
+	/**
+     * Questo metodo prepara la ripresa della ricerca dall'ultimo punto di ripresa del giornale letto con {@link PrimalityCheckpoint#load(String, String, int)}<br>Il minimo diventa il prossimo numero da verificare, il tempo delle esecuzioni precedenti viene sommato al tempo di calcolo e all'avvio di {@link #run()} i numeri primi del giornale vengono aggiunti ai risultati prima del giornale riaperto
+	 * @param checkpoint giornale letto della stessa ricerca
+    */
+	public void resume(PrimalityCheckpoint checkpoint) {
+		this.checkpoint = checkpoint;
+		this.resumed = true;
+		this.min = checkpoint.getNext();
+		this.timeOffset = checkpoint.getTime();
+		this.time = timeOffset;
+	}
+
+	/**
+     * Questo metodo ritorna il tempo di calcolo trascorso fino ad ora, comprese le esecuzioni precedenti di una ricerca ripresa
+	 * @return tempo di calcolo in secondi
+    */
+	private double getElapsed() {
+		return timeOffset + Math.abs(System.currentTimeMillis() - startTime) / 1000.0;
+	}
+
+	/**
+     * Questo metodo ritorna il prossimo numero da verificare, cioè il maggiore tra il numero successivo all'ultimo numero primo trovato, la posizione dell'ultimo punto di ripresa e il minimo<br>Tutti i numeri minori sono già stati verificati in quanto i numeri primi vengono aggiunti in ordine crescente
+	 * @return prossimo numero da verificare
+    */
+	private BigInteger getNext() {
+		BigInteger next = min;
+		if (!results.isEmpty()) next = next.max(results.get(results.size() - 1).add(BigInteger.ONE));
+		final BigInteger scanned = position;
+		return (scanned == null) ? next : next.max(scanned);
+	}
+
+	/**
+     * Questo metodo segnala che tutti i numeri minori di {@code next} sono stati verificati e i numeri primi trovati sono stati aggiunti ai risultati, e scrive un punto di ripresa in quella posizione se è trascorso {@link PrimalityCheckpoint#INTERVAL_MILLIS} dall'ultimo<br>Viene invocato durante la scansione, così anche un lungo tratto senza numeri primi viene registrato nel giornale<br>Il numero viene convertito in {@link BigInteger} solo quando il punto di ripresa viene scritto
+	 * @param next prossimo numero da verificare
+    */
+	void scanned(long next) {
+		if (checkpoint != null && checkpoint.isDue()) checkpointAt(BigInteger.valueOf(next));
+	}
+
+	/**
+     * Questo metodo segnala che tutti i numeri minori di {@code next} sono stati verificati, come {@link #scanned(long)} per numeri di qualsiasi dimensione
+	 * @param next prossimo numero da verificare
+    */
+	void scanned(BigInteger next) {
+		if (checkpoint != null && checkpoint.isDue()) checkpointAt(next);
+	}
+
+	/**
+     * Questo metodo scrive un punto di ripresa con i numeri primi trovati fino ad ora e il tempo di calcolo trascorso
+	 * @param next prossimo numero da verificare, tutti i numeri minori sono stati verificati
+    */
+	private void checkpointAt(BigInteger next) {
+		position = next;
+		checkpoint.checkpoint(next, results.size(), getElapsed());
+	}
+
 	/**
      * Questo metodo imposta un nuovo valore al tempo impiegato per la ricerca dei numeri primi.
 	 * @param time tempo trascorso dall'inizio al termine della ricerca dei numeri primi
@@ -175,259 +372,340 @@ public class TestPrimality implements Runnable {
 	}
 
 	/**
-     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino al numero<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+     * Questo metodo ritorna la strategia del metodo di calcolo scelto dal registro {@link PrimalityStrategies}, configurata con le impostazioni di questa istanza
+	 * @return strategia del metodo di calcolo scelto
     */
-	public void calcPrimeUntilNum() {
+	public PrimalityStrategy getStrategy() {
+		return PrimalityStrategies.get(choice).withRounds(rounds);
+	}
+
+	/**
+     * Questo metodo effettua la ricerca dei numeri primi con la strategia data misurando il tempo impiegato<br>Se la strategia supporta la modalità a intervallo l'intervallo viene elaborato insieme, altrimenti ogni candidato viene verificato singolarmente su {@code long} quando il massimo è rappresentabile con un {@code long} e su {@link BigInteger} altrimenti
+	 * @param strategy strategia del metodo di calcolo
+    */
+	public void calcStrategy(PrimalityStrategy strategy) {
 		long start; //tempo inizio calcolo numeri primi
 		long end; //tempo fine calcolo numeri primi
-		boolean checkPrimo; //verifica se un numero è primo
-		//check = true:     primo
-		//check = false:    composto
-		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi                     
-		//ciclo for di i che scorre da min a max
-		for (
-		BigInteger i = min; //è il numero di cui si verifica la primalità
-		i.compareTo(max) <= 0;
-		i = i.add(BigInteger.valueOf(1))
-		) {
-			
-			incrementProgressBar.run();
-			checkPrimo = true;
-			//ciclo for annidato di j che scorre da 2 al divisore massimo
-			for (
-			BigInteger j = BigInteger.valueOf(2); //è il dvisore del numero per la verifica della primalità
-			j.compareTo(i) < 0; //j compareTo fino al numero
-			j = j.add(BigInteger.valueOf(1)))
-			//verifica se j divisore di i ed in caso aggiorna check = false
-			{
-				if (Thread.currentThread().isInterrupted()) {
-					end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-					time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
-					return;
-				}
-				if (i.mod(j).equals(BigInteger.valueOf(0))) checkPrimo = false;
-			}
-			if (checkPrimo){
-				results.add(i.toString());
-				appendResult.run();
-			}
-		
+		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi
+		startTime = start;
+		if (strategy.supportsRange(min, max)) {
+			calcPrimeRange(strategy);
+		} else if (LongPrimality.supports(max)) {
+			calcPrimeLong(strategy);
+		} else {
+			calcPrimeBig(strategy);
 		}
 		end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-		time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
+		time = timeOffset + Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi, comprese le esecuzioni precedenti di una ricerca ripresa
 	}
 
 	/**
-     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino al numero uscendo dal ciclo appena possibile<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+     * Questo metodo effettua la ricerca dei numeri primi con la modalità a intervallo della strategia, ad esempio un crivello, che elabora tutti i numeri dell'intervallo insieme
+	 * @param strategy strategia che supporta la modalità a intervallo
     */
-	public void calcPrimeUntilNumWithBreak() {
-		long start; //tempo inizio calcolo numeri primi
-		long end; //tempo fine calcolo numeri primi
-		boolean checkPrimo; //verifica se un numero è primo
-		//check = true:     primo
-		//check = false:    composto
-		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi                     
-		//ciclo for di i che scorre da min a max
-		for (
-		BigInteger i = min; //è il numero per cui si verifica la primalità
-		i.compareTo(max) <= 0;
-		i = i.add(BigInteger.valueOf(1))) {
-			incrementProgressBar.run();
-			checkPrimo = true;
-			//ciclo for annidato di j che scorre da 2 al divisore massimo
-			for (
-			BigInteger j = BigInteger.valueOf(2); //è il dvisore del numero per la verifica della primalità
-			j.compareTo(i) < 0; //j compareTo fino al numero
-			j = j.add(BigInteger.valueOf(1)))
-			//verifica se j divisore di i ed in caso aggiorna check = false
-			{
-				if (Thread.currentThread().isInterrupted()) {
-					end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-					time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
-					return;
-				}
-				if (i.mod(j).equals(BigInteger.valueOf(0))) {
-					checkPrimo = false;
-					break; //fine ricerca primalita quindi interrompe il ciclo di j perche i è composto
-				}
+	private void calcPrimeRange(PrimalityStrategy strategy) {
+		final long from = min.longValue(); //numero minimo di partenza della ricerca
+		final long[] processed = {0}; //numeri elaborati, notificati in ordine dalla strategia
+		strategy.testRange(from, max.longValue(), prime -> {
+			found(prime);
+		}, count -> {
+			publishProgress(count);
+			processed[0] += count;
+			scanned(from + processed[0]);
+		});
+	}
 
-			}
+	/**
+     * Questo metodo effettua la ricerca dei numeri primi su tipi primitivi {@code long} quando il massimo dell'intervallo è rappresentabile con un {@code long}<br>Nessun oggetto viene allocato per i candidati composti<br>Presenta un controllo isInterrupted() che ad ogni candidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+	 * @param strategy strategia che verifica il singolo candidato
+    */
+	private void calcPrimeLong(PrimalityStrategy strategy) {
+		final long from = min.longValue(); //numero minimo di partenza della ricerca
+		WheelIterator candidates = new WheelIterator(min, max, wheel); //candidati da min a max
+		//ciclo while di i che scorre i candidati da min a max
+		while (candidates.hasNext()) {
+			final long i = from + candidates.next();
+			publishProgress(candidates.getSkipped() + 1);
+			scanned(i);
+			boolean checkPrimo = strategy.isPrime(i);
+			if (Thread.currentThread().isInterrupted()) return;
 			if (checkPrimo){
-				results.add(i.toString());
-				appendResult.run();
+				found(i);
 			}
 		}
-		end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-		time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
+		publishProgress(candidates.getRemaining());
 	}
 
 	/**
-     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino alla meta del numero <br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+     * Questo metodo effettua la ricerca dei numeri primi su {@link BigInteger} verificando ogni candidato con la strategia data<br>Presenta un controllo isInterrupted() che ad ogni candidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+	 * @param strategy strategia che verifica il singolo candidato
     */
-	public void calcPrimeUntilHalfNum() {
-		long start; //tempo inizio calcolo numeri primi
-		long end; //tempo fine calcolo numeri primi
-		boolean checkPrimo; //verifica se un numero è primo
-		//check = true:     primo
-		//check = false:    composto
-		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi                     
-		//ciclo for di i che scorre da min a max
-		for (
-		BigInteger i = min; //è il numero per cui si verifica la primalità
-		i.compareTo(max) <= 0;
-		i = i.add(BigInteger.valueOf(1))) {
-			incrementProgressBar.run();
-			checkPrimo = true;
-			//ciclo for annidato di j che scorre da 2 al divisore massimo
-			for (
-			BigInteger j = BigInteger.valueOf(2); //è il dvisore del numero per la verifica della primalità
-			j.compareTo(i.divide(BigInteger.valueOf(2))) <= 0; //j compareTo fino alla meta del numero
-			j = j.add(BigInteger.valueOf(1)))
-			//verifica se j divisore di i ed in caso aggiorna check = false
-			{
-				if (Thread.currentThread().isInterrupted()) {
-					end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-					time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
-					return;
-				}
-				if (i.mod(j).equals(BigInteger.valueOf(0))) checkPrimo = false;
-			}
+	private void calcPrimeBig(PrimalityStrategy strategy) {
+		WheelIterator candidates = new WheelIterator(min, max, wheel); //candidati da min a max
+		//ciclo while di i che scorre i candidati da min a max
+		while (candidates.hasNext()) {
+			final BigInteger i = min.add(BigInteger.valueOf(candidates.next()));
+			publishProgress(candidates.getSkipped() + 1);
+			scanned(i);
+			boolean checkPrimo = strategy.isPrime(i);
+			if (Thread.currentThread().isInterrupted()) return;
 			if (checkPrimo){
-				results.add(i.toString());
-				appendResult.run();
+				found(i);
 			}
 		}
-		end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-		time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
+		publishProgress(candidates.getRemaining());
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino al numero<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void calcPrimeUntilNum() {
+		calcStrategy(TrialDivisionStrategy.UNTIL_NUM);
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino al numero uscendo dal ciclo appena possibile<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void calcPrimeUntilNumWithBreak() {
+		calcStrategy(TrialDivisionStrategy.UNTIL_NUM_WITH_BREAK);
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino alla meta del numero <br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void calcPrimeUntilHalfNum() {
+		calcStrategy(TrialDivisionStrategy.UNTIL_HALF_NUM);
 	}
 
 	/**
      * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino alla meta del numero considerando solo i numeri dispari<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
     */
 	public void calcPrimeUntilHalfNumOnlyOdd() {
+		calcStrategy(TrialDivisionStrategy.UNTIL_HALF_NUM_ONLY_ODD);
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino alla radice del numero considerando solo i numeri dispari ed uscendo dal ciclo appena possibile<br>I divisori sono i soli numeri primi della tabella condivisa di {@link SmallPrimes} e la radice viene calcolata una sola volta per ogni candidato<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void calcPrimeUntilRadixNumOnlyOddWithBreak() {
+		calcStrategy(TrialDivisionStrategy.UNTIL_RADIX_NUM_ONLY_ODD_WITH_BREAK);
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica dell'algoritmo di Fermat<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void algoritmoFermat(){
+		calcStrategy(TrialDivisionStrategy.FERMAT);
+	}
+
+	/**
+     * Questo metodo effettua la ricerca dei numeri primi con il crivello di Eratostene segmentato<br>L'intervallo viene crivellato a segmenti di dimensione fissa con la tabella dei numeri primi base fino alla radice del massimo, quindi nessun candidato viene verificato singolarmente<br>Oltre {@link SegmentedSieve#MAX_LIMIT} ogni candidato viene verificato con la divisione per i numeri primi fino alla radice<br>Presenta un controllo isInterrupted() che ad ogni valore del segmento controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void calcPrimeSegmentedSieve() {
+		calcStrategy(new SegmentedSieveStrategy());
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica dell'algoritmo di Miller-Rabin<br>A differenza dell'algoritmo di Fermat riconosce i numeri di Carmichael e per i numeri minori di {@link MillerRabin#DETERMINISTIC_LIMIT}, circa 3,3 * 10^24, il risultato è esatto, oltre vengono provate {@link #getRounds()} basi casuali<br>Presenta un controllo isInterrupted() che ad ogni candidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void algoritmoMillerRabin() {
+		calcStrategy(new MillerRabinStrategy(rounds));
+	}
+
+	/**
+     * Questo metodo effettua il test di verifica della primalita con la logica dell'algoritmo di Baillie-PSW<br>Ogni candidato viene verificato con il test di Miller-Rabin in base 2 e con il test forte di Lucas, con un costo di circa tre esponenziazioni modulari anche per numeri di centinaia di cifre<br>Presenta un controllo isInterrupted() che ad ogni candidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+    */
+	public void algoritmoBailliePSW() {
+		calcStrategy(new BailliePSWStrategy());
+	}
+
+	/**
+     * Questo metodo sviluppa sul thread corrente la strategia corrispondente al valore dell'attributo privato choice, senza attese iniziali e senza rielaborare i risultati
+    */
+	void calc() {
+		//l'algoritmo di Fermat viene sviluppato solo oltre 10, i numeri primi minori vengono aggiunti da run() ma l'intervallo conta come elaborato
+		if (choice == PrimalityStrategies.FERMAT && max.compareTo(BigInteger.TEN) <= 0) {
+			publishProgress(max.subtract(min).add(BigInteger.ONE).longValue());
+			return;
+		}
+		calcStrategy(getStrategy());
+	}
+
+	/**
+     * Questo metodo sviluppa il metodo di calcolo scelto in parallelo con {@link ParallelPrimality}<br>L'intervallo viene suddiviso in sotto intervalli bilanciati elaborati da un {@link java.util.concurrent.ForkJoinPool} e i numeri primi trovati vengono aggiunti ai risultati in ordine crescente invocando le callback come nel calcolo sequenziale<br>Se il thread viene interrotto i sotto intervalli in corso vengono annullati e restano i risultati già aggiunti, lo stesso avviene se un sotto intervallo fallisce
+    */
+	public void calcParallel() {
 		long start; //tempo inizio calcolo numeri primi
 		long end; //tempo fine calcolo numeri primi
-		boolean checkPrimo; //verifica se un numero è primo
-		//check = true:     primo
-		//check = false:    composto
-		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi                     
-		//ciclo for di i che scorre da min a max
-		for (
-		BigInteger i = min; //è il numero per cui si verifica la primalità
-		i.compareTo(max) <= 0;
-		i = i.add(BigInteger.valueOf(1))) {
-			incrementProgressBar.run();
-			checkPrimo = true;
-			//ciclo for annidato di j che scorre da 2 al divisore massimo
-			for (
-			BigInteger j = BigInteger.valueOf(2); //è il dvisore del numero per la verifica della primalità
-			j.compareTo(i.divide(BigInteger.valueOf(2))) <= 0; //j compareTo fino alla meta del numero
-			j = j.add(BigInteger.valueOf(1)))
-			//verifica se i è pari o se j divisore di i ed in caso aggiorna check = false
-			{
-				if (Thread.currentThread().isInterrupted()) {
-					end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-					time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
-					return;
-				}
-				if (i.mod(BigInteger.valueOf(2)).equals(BigInteger.valueOf(0)) //se i è pari
-				|| i.mod(j).equals(BigInteger.valueOf(0)) // se i è divisivbile 
-				) checkPrimo = false; //allora i è composto
-			}
-			if (checkPrimo){
-				results.add(i.toString());
-				appendResult.run();
-			}
+		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi
+		startTime = start;
+		ParallelPrimality parallelPrimality = new ParallelPrimality(this, min, max, parallelism);
+		try {
+			parallelPrimality.run();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt(); //mantiene lo stato di interruzione come nel calcolo sequenziale
+		} catch (IllegalStateException e) {
+			//un sotto intervallo è fallito: la ricerca termina come interrotta, con i risultati già aggiunti e il giornale da cui riprendere
+			e.printStackTrace();
+			Thread.currentThread().interrupt();
 		}
 		end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-		time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
+		time = timeOffset + Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi, comprese le esecuzioni precedenti di una ricerca ripresa
 	}
 
 	/**
-     * Questo metodo effettua il test di verifica della primalita con la logica della ricerca dei divisori fino alla radice del numero considerando solo i numeri dispari ed uscendo dal ciclo appena possibile<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+     * Questo metodo sviluppa il calcolo sull'intervallo, in parallelo o sul thread corrente
     */
-	public void calcPrimeUntilRadixNumOnlyOddWithBreak() {
-		long start; //tempo inizio calcolo numeri primi
-		long end; //tempo fine calcolo numeri primi
-		boolean checkPrimo; //verifica se un numero è primo
-		//check = true:     primo
-		//check = false:    composto
-		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi                     
-		//ciclo for di i che scorre da min a max
-		for (
-		BigInteger i = min; //è il numero per cui si verifica la primalità
-		i.compareTo(max) <= 0;
-		i = i.add(BigInteger.valueOf(1))) {
-			incrementProgressBar.run();
-			checkPrimo = true;
-			//ciclo for annidato di j che scorre da 2 al divisore massimo
-			for (
-			BigInteger j = BigInteger.valueOf(2); //è il dvisore del numero per la verifica della primalità
-			j.compareTo(i.sqrt().add(BigInteger.valueOf(1))) < 0; //j compareTo fino alla radice del numero
-			j = j.add(BigInteger.valueOf(1)))
-			//verifica se i è pari o se j divisore di i ed in caso aggiorna check = false
-			{
-				if (Thread.currentThread().isInterrupted()) {
-					end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-					time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
-					return;
-				}
-				if (i.mod(BigInteger.valueOf(2)).equals(BigInteger.valueOf(0)) //i è pari
-				|| i.mod(j).equals(BigInteger.valueOf(0)) //i è divisivbile 
-				) {
-					checkPrimo = false; //i è composto
-					break; //fine ricerca primalita quindi interrompe il ciclo di j perche i è composto
+	private void calcSpan() {
+		if (parallel) {
+			calcParallel();
+		} else {
+			calc();
+		}
+	}
+
+	/**
+     * Questo metodo indica se la ricerca può utilizzare l'indice dei numeri primi già calcolati<br>I risultati di un metodo non esatto, come l'algoritmo di Fermat, non vengono né letti né aggiunti all'indice
+	 * @return true se l'indice è impostato, l'intervallo è rappresentabile con un {@code long} e il metodo di calcolo è esatto
+    */
+	private boolean isIndexed() {
+		return index != null && min.signum() >= 0 && LongPrimality.supports(max) && getStrategy().isExact(max);
+	}
+
+	/**
+     * Questo metodo effettua la ricerca dei numeri primi con l'indice dei numeri primi già calcolati<br>L'intervallo viene diviso in parti coperte dall'indice, i cui numeri primi vengono letti e aggiunti ai risultati, e in parti scoperte, che vengono calcolate con il metodo scelto e aggiunte all'indice se il calcolo non viene interrotto<br>Se il file dei dati dell'indice non è leggibile la parte restante viene calcolata
+    */
+	private void calcIndexed() {
+		final BigInteger from = min; //numero minimo di partenza della ricerca
+		final BigInteger to = max; //numero massimo di termine della ricerca
+		final double offset = timeOffset;
+		final long start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi
+		startTime = start;
+		try {
+			for (PrimeIndex.Span span : index.plan(from.longValue(), to.longValue())) {
+				long low = span.from;
+				if (span.covered) {
+					if (index.read(span.from, span.to, this::found)) {
+						publishProgress(span.to - span.from + 1);
+						scanned(BigInteger.valueOf(span.to).add(BigInteger.ONE));
+						continue;
+					}
+					if (Thread.currentThread().isInterrupted()) return;
+					//i numeri primi letti prima dell'errore restano nei risultati e vengono calcolati solo quelli successivi
+					if (!results.isEmpty()) low = Math.max(low, results.get(results.size() - 1).longValue() + 1);
+					publishProgress(low - span.from);
 				}
+				final int before = results.size();
+				min = BigInteger.valueOf(low);
+				max = BigInteger.valueOf(span.to);
+				//il tempo dei calcoli delle parti precedenti viene sommato come per una ricerca ripresa
+				timeOffset = offset + Math.abs(System.currentTimeMillis() - start) / 1000.0;
+				calcSpan();
+				if (Thread.currentThread().isInterrupted()) return;
+				index.add(low, span.to, results, before, results.size());
 			}
-			if (checkPrimo){
-				results.add(i.toString());
-				appendResult.run();
-			}
+		} finally {
+			min = from;
+			max = to;
+			timeOffset = offset;
+			startTime = start;
+			time = offset + Math.abs(System.currentTimeMillis() - start) / 1000.0; //tempo durata calcolo numeri primi, comprese le parti lette dall'indice
 		}
-		end = System.currentTimeMillis(); //tempo fine calcolo numeri primi                                        
-		time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
 	}
 
 	/**
-     * Questo metodo effettua il test di verifica della primalita con la logica dell'algoritmo di Fermat<br>Presenta un controllo isInterrupted() che ad ogni iterazione del ciclo annidato controlla se processo terminato ed in caso interrompe i calcoli sviluppando i dati ricavati per essere gestiti nel main
+     * Questo metodo crea un test di primalità per un sotto intervallo con lo stesso metodo di calcolo e le stesse impostazioni di questa istanza
+	 * @param min numero minimo del sotto intervallo
+	 * @param max numero massimo del sotto intervallo
+	 * @param incrementProgressBar callback invocata ad ogni numero del sotto intervallo
+	 * @return test di primalità del sotto intervallo da sviluppare con {@link #calc()}
     */
-	public void algoritmoFermat(){
-		long start; //tempo inizio calcolo numeri primi
-		long end; //tempo fine calcolo numeri primi
-		boolean checkPrimo; //verifica se un numero è primo
-		//check = true:     primo
-		//check = false:    composto
-		start = System.currentTimeMillis(); //tempo inizio calcolo numeri primi                     
-		//ciclo for di i che scorre da min a max
-		for (
-		BigInteger i = min; //è il numero di cui si verifica la primalità
-		i.compareTo(max) <= 0;
-		i = i.add(BigInteger.valueOf(1))
-		) {
-			incrementProgressBar.run();
-			checkPrimo = true;
-			//ciclo for annidato di j che scorre da 2 al divisore massimo
-			for (
-			BigInteger j = BigInteger.valueOf(2); //è il dvisore del numero per la verifica della primalità
-			j.compareTo(BigInteger.valueOf(10)) <= 0; //j compareTo fino al numero
-			j = j.add(BigInteger.valueOf(1)))
-			//verifica se j divisore di i ed in caso aggiorna check = false
-			{
-				if (Thread.currentThread().isInterrupted()) {
-					end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-					time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
-					return;
-				}
-				if (!j.modPow(i.subtract(BigInteger.valueOf(1)), i).equals(BigInteger.valueOf(1))) checkPrimo = false;
+	TestPrimality subRange(BigInteger min, BigInteger max, Runnable incrementProgressBar) {
+		TestPrimality test = new TestPrimality(min.toString(), max.toString(), choice, () -> {}, null);
+		test.incrementProgressBar = incrementProgressBar;
+		test.rounds = rounds;
+		test.wheel = wheel;
+		return test;
+	}
+
+	/**
+     * Questo metodo aggiunge ai risultati un numero primo trovato, lo scrive nel file del salvataggio durante la ricerca se presente e lo conta nell'avanzamento letto dalla UI<br>0 e 1 non sono numeri primi e non vengono aggiunti, così i risultati già contati non cambiano mentre la UI li legge
+	 * @param prime numero primo trovato
+    */
+	private void found(long prime) {
+		if (prime < 2) return;
+		results.add(prime);
+		if (save != null) save.append(prime);
+		if (progress != null) progress.addPrime();
+		if (checkpoint != null) {
+			checkpoint.append(prime);
+			if (checkpoint.isDue()) checkpointAt(BigInteger.valueOf(prime + 1));
+		}
+	}
+
+	/**
+     * Questo metodo aggiunge ai risultati un numero primo trovato, lo scrive nel file del salvataggio durante la ricerca se presente e lo conta nell'avanzamento letto dalla UI<br>0 e 1 non sono numeri primi e non vengono aggiunti
+	 * @param prime numero primo trovato
+    */
+	private void found(BigInteger prime) {
+		if (prime.compareTo(BigInteger.ONE) <= 0) return;
+		results.add(prime);
+		if (save != null) save.append(prime);
+		if (progress != null) progress.addPrime();
+		if (checkpoint != null) {
+			checkpoint.append(prime);
+			if (checkpoint.isDue()) checkpointAt(prime.add(BigInteger.ONE));
+		}
+	}
+
+	/**
+     * Questo metodo aggiunge ai risultati i numeri primi del giornale di una ricerca ripresa, li scrive nel file del salvataggio durante la ricerca se presente e li conta nell'avanzamento letto dalla UI, quindi riapre il giornale
+    */
+	private void restore() {
+		final PrimeStore restored = checkpoint.getResults();
+		for (int i = 0; i < restored.size(); i++) {
+			results.addFrom(restored, i);
+			if (save != null) {
+				if (restored.isLong(i)) save.append(restored.getLong(i));
+				else save.append(restored.get(i));
 			}
-			if (checkPrimo){
-				results.add(i.toString());
-				appendResult.run();
+			if (progress != null) progress.addPrime();
+		}
+		checkpoint.open();
+	}
+
+	/**
+     * Questo metodo aggiunge ai risultati un numero primo trovato da un sotto intervallo del calcolo parallelo e lo conta nell'avanzamento letto dalla UI
+	 * @param primes risultati del sotto intervallo
+	 * @param index indice del numero primo nei risultati del sotto intervallo
+    */
+	void publishResult(PrimeStore primes, int index) {
+		if (primes.isLong(index)) {
+			found(primes.getLong(index));
+		} else {
+			found(primes.get(index));
+		}
+	}
+
+	/**
+     * Questo metodo aggiorna l'avanzamento per un gruppo di numeri elaborati o scartati, ad esempio da un sotto intervallo del calcolo parallelo o dalla ruota dei candidati<br>Il test originale incrementa solo il contatore dell'avanzamento, i sotto intervalli invocano la callback per ogni candidato
+	 * @param count numero di candidati elaborati
+    */
+	void publishProgress(long count) {
+		if (progress != null) progress.addProcessed(count);
+		if (incrementProgressBar != null) {
+			for (long k = 0; k < count; k++) {
+				incrementProgressBar.run();
 			}
 		}
-		end = System.currentTimeMillis(); //tempo fine calcolo numeri primi
-		time = Math.abs(start - end) / 1000.0; //tempo durata calcolo numeri primi
+	}
 
+	/**
+     * Questo metodo ritorna l'ampiezza minima di un sotto intervallo del calcolo parallelo per la strategia scelta, ad esempio il crivello segmentato richiede sotto intervalli di almeno un segmento per ammortizzare il costo dei numeri primi base
+	 * @return ampiezza minima di un sotto intervallo
+    */
+	int getMinParallelRange() {
+		return getStrategy().getMinParallelRange();
 	}
 
 	/**
@@ -440,52 +718,36 @@ public class TestPrimality implements Runnable {
 		try {
 			Thread.sleep(500);
 		} catch(InterruptedException e) {
+			if (save != null) save.close(0, 0);
+			//il giornale di una ricerca ripresa non è ancora stato riaperto e resta invariato
+			if (checkpoint != null && !resumed) checkpoint.close(min, 0, timeOffset);
+			if (progress != null) progress.finish();
 			return;
 		}
-		switch (choice) {
-		case 0:
-			//senza break,  anche dispari,  tutti    
-			calcPrimeUntilNum();
-			break;
-		case 1:
-			//con break,    anche dispari,  tutti
-			calcPrimeUntilNumWithBreak();
-			break;
-		case 2:
-			//senza break,  anche dispari,  fino meta
-			calcPrimeUntilHalfNum();
-			break;
-		case 3:
-			//senza break,  solo dispari,   fino meta
-			calcPrimeUntilHalfNumOnlyOdd();
-			break;
-		case 4:
-			//con break,    solo dispari,   fino radice
-			calcPrimeUntilRadixNumOnlyOddWithBreak();
-			break;
-		case 5:
-			// Algoritmo di Fermat
-			if(max.compareTo(BigInteger.valueOf(10)) > 0){
-				algoritmoFermat();
+		if (resumed) restore();
+		if(choice == PrimalityStrategies.FERMAT){
+			//i numeri primi usati come base dell'algoritmo di Fermat non superano il test e vengono aggiunti per primi
+			final int [] primi = {2,3,5,7};
+			for(int i = 0; i < primi.length; i ++){
+				if(min.compareTo(BigInteger.valueOf(primi[i])) <= 0 && max.compareTo(BigInteger.valueOf(primi[i])) >= 0){
+					found(primi[i]);
+				}
 			}
-			break;
 		}
-		if(results.size() > 0){
-			if(results.get(0).equals("0"))results.remove(0);
-			if(results.get(0).equals("1"))results.remove(0);
-		}
-		if(choice == 5){
-				final int [] primi = {2,3,5,7};
-				for(int i = 0; i < primi.length; i ++){
-					if(min.compareTo(BigInteger.valueOf(primi[i])) <= 0 && max.compareTo(BigInteger.valueOf(primi[i])) >= 0){
-						results.add(i,String.valueOf(primi[i]));
-					}
-				}
+		//una ricerca ripresa dopo l'ultimo numero primo dell'intervallo non ha altri numeri da verificare
+		if (min.compareTo(max) <= 0) {
+			if (isIndexed()) {
+				calcIndexed();
+			} else {
+				calcSpan();
 			}
-		if(results.size() == 0){
-			results.add("");
 		}
-	
+		if (checkpoint != null) {
+			if (Thread.currentThread().isInterrupted()) checkpoint.close(getNext(), results.size(), time);
+			else checkpoint.delete();
+		}
+		if (save != null) save.close(results.size(), time);
+		if (progress != null) progress.finish();
 		stopCalc.run();
 	}
 
@@ -493,7 +755,7 @@ public class TestPrimality implements Runnable {
      *@return ritorna i numeri risultati della ricerca dei numeri primi
     */
     public String getResult(){   
-        return ((results.size() == 0)?"":results.get(results.size() - 1));  
+        return results.last();
     }
 	
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+
+/**
+ * L'enumerazione {@code TrialDivisionStrategy} raccoglie i metodi di calcolo originali di {@link TestPrimality}: la ricerca dei divisori con le sue varianti e l'algoritmo di Fermat.
+ * <p>
+ * Le versioni {@code long} sono fornite da {@link LongPrimality}, mentre le versioni {@link BigInteger} riproducono i cicli sui divisori originali
+ * e restituiscono {@code false} appena il thread viene interrotto.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public enum TrialDivisionStrategy implements PrimalityStrategy {
+
+	/**
+     * Divisori fino al numero senza uscire dal ciclo.
+     */
+	UNTIL_NUM("Divisori fino al numero anche pari no break") {
+		@Override
+		public boolean isPrime(long n) {
+			return LongPrimality.isPrimeUntilNum(n);
+		}
+
+		@Override
+		public boolean isPrime(BigInteger i) {
+			boolean checkPrimo = true;
+			//ciclo for di j che scorre da 2 al numero
+			for (BigInteger j = TWO; j.compareTo(i) < 0; j = j.add(BigInteger.ONE)) {
+				if (Thread.currentThread().isInterrupted()) return false;
+				if (i.mod(j).signum() == 0) checkPrimo = false;
+			}
+			return checkPrimo;
+		}
+	},
+
+	/**
+     * Divisori fino al numero uscendo dal ciclo appena possibile.
+     */
+	UNTIL_NUM_WITH_BREAK("Divisori fino al numero anche pari con break") {
+		@Override
+		public boolean isPrime(long n) {
+			return LongPrimality.isPrimeUntilNumWithBreak(n);
+		}
+
+		@Override
+		public boolean isPrime(BigInteger i) {
+			//ciclo for di j che scorre da 2 al numero
+			for (BigInteger j = TWO; j.compareTo(i) < 0; j = j.add(BigInteger.ONE)) {
+				if (Thread.currentThread().isInterrupted()) return false;
+				if (i.mod(j).signum() == 0) return false; //i è composto quindi interrompe il ciclo di j
+			}
+			return true;
+		}
+	},
+
+	/**
+     * Divisori fino alla metà del numero senza uscire dal ciclo.
+     */
+	UNTIL_HALF_NUM("Divisori fino alla meta anche pari no break") {
+		@Override
+		public boolean isPrime(long n) {
+			return LongPrimality.isPrimeUntilHalfNum(n);
+		}
+
+		@Override
+		public boolean isPrime(BigInteger i) {
+			boolean checkPrimo = true;
+			final BigInteger half = i.shiftRight(1);
+			//ciclo for di j che scorre da 2 alla meta del numero
+			for (BigInteger j = TWO; j.compareTo(half) <= 0; j = j.add(BigInteger.ONE)) {
+				if (Thread.currentThread().isInterrupted()) return false;
+				if (i.mod(j).signum() == 0) checkPrimo = false;
+			}
+			return checkPrimo;
+		}
+	},
+
+	/**
+     * Divisori fino alla metà del numero scartando i numeri pari, senza uscire dal ciclo.
+     */
+	UNTIL_HALF_NUM_ONLY_ODD("Divisori fino alla meta solo dispari no break") {
+		@Override
+		public boolean isPrime(long n) {
+			return LongPrimality.isPrimeUntilHalfNumOnlyOdd(n);
+		}
+
+		@Override
+		public boolean isPrime(BigInteger i) {
+			final BigInteger half = i.shiftRight(1);
+			if (half.compareTo(TWO) >= 0 && !i.testBit(0)) return false; //i è pari
+			boolean checkPrimo = true;
+			//ciclo for di j che scorre da 2 alla meta del numero
+			for (BigInteger j = TWO; j.compareTo(half) <= 0; j = j.add(BigInteger.ONE)) {
+				if (Thread.currentThread().isInterrupted()) return false;
+				if (i.mod(j).signum() == 0) checkPrimo = false;
+			}
+			return checkPrimo;
+		}
+	},
+
+	/**
+     * Divisori primi fino alla radice del numero uscendo dal ciclo appena possibile.
+     */
+	UNTIL_RADIX_NUM_ONLY_ODD_WITH_BREAK("Divisori fino alla radice solo dispari con break") {
+		@Override
+		public boolean isPrime(long n) {
+			return LongPrimality.isPrimeUntilRadixNumOnlyOddWithBreak(n);
+		}
+
+		@Override
+		public boolean isPrime(BigInteger i) {
+			return SmallPrimes.isPrime(i);
+		}
+	},
+
+	/**
+     * Algoritmo di Fermat sulle basi da 2 a 10.
+     */
+	FERMAT("Algoritmo di Fermat") {
+		@Override
+		public boolean isPrime(long n) {
+			return LongPrimality.isPrimeFermat(n);
+		}
+
+		@Override
+		public boolean isPrime(BigInteger i) {
+			boolean checkPrimo = true;
+			final BigInteger exp = i.subtract(BigInteger.ONE);
+			//ciclo for di j che scorre le basi da 2 a 10
+			for (BigInteger j = TWO; j.compareTo(BigInteger.TEN) <= 0; j = j.add(BigInteger.ONE)) {
+				if (Thread.currentThread().isInterrupted()) return false;
+				if (!j.modPow(exp, i).equals(BigInteger.ONE)) checkPrimo = false;
+			}
+			return checkPrimo;
+		}
+	};
+
+	/**
+     * Primo divisore provato.
+     */
+	private static final BigInteger TWO = BigInteger.valueOf(2);
+
+	/**
+     * Nome del metodo mostrato all'utente.
+     */
+	private final String name;
+
+	/**
+     * Crea il metodo con il nome dato.
+	 * @param name nome del metodo mostrato all'utente
+	 */
+	TrialDivisionStrategy(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	/**
+     * La ricerca dei divisori è esatta per qualsiasi numero, l'algoritmo di Fermat riconosce come primi anche i numeri di Carmichael.
+	 * @param max numero massimo dell'intervallo
+	 * @return {@code true} per tutti i metodi tranne l'algoritmo di Fermat
+	 */
+	@Override
+	public boolean isExact(BigInteger max) {
+		return this != FERMAT;
+	}
+}
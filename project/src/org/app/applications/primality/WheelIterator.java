@@ -0,0 +1,191 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.applications.primality;
+
+import java.math.BigInteger;
+
+/**
+ * La classe {@code WheelIterator} genera i candidati di un intervallo {@code [min, max]} con la fattorizzazione a ruota.
+ * <p>
+ * Con una ruota di modulo 30 (2·3·5) vengono generati solo i numeri coprimi con 30, cioè 8 ogni 30, scartando il 73% dei candidati;
+ * con una ruota di modulo 210 (2·3·5·7) vengono generati 48 numeri ogni 210, scartando il 77% dei candidati.
+ * I numeri primi che compongono la ruota vengono comunque generati se appartengono all'intervallo, così come il numero 1 che è coprimo con ogni modulo.
+ * Con la ruota {@link #WHEEL_NONE} vengono generati tutti i numeri dell'intervallo.
+ * </p>
+ * <p>
+ * I candidati sono restituiti come distanza da {@code min}, in modo che il chiamante possa lavorare con {@code long} o con {@link BigInteger} senza conversioni aggiuntive.
+ * {@link #getSkipped()} riporta quanti numeri sono stati scartati prima dell'ultimo candidato, per aggiornare la barra di progresso su tutto l'intervallo.
+ * </p>
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class WheelIterator {
+
+	/**
+     * Ruota di modulo 1, genera tutti i numeri dell'intervallo.
+     */
+	public static final int WHEEL_NONE = 1;
+
+	/**
+     * Ruota di modulo 30 = 2·3·5.
+     */
+	public static final int WHEEL_30 = 30;
+
+	/**
+     * Ruota di modulo 210 = 2·3·5·7.
+     */
+	public static final int WHEEL_210 = 210;
+
+	/**
+     * Modulo della ruota.
+     */
+	private final int size;
+
+	/**
+     * {@code gap[r]} è la distanza dal residuo {@code r} al successivo residuo coprimo con il modulo.
+     */
+	private final int[] gap;
+
+	/**
+     * Come {@link #gap} ma considerando candidati anche i numeri primi della ruota, utilizzato nel primo giro della ruota.
+     */
+	private final int[] gapFirst;
+
+	/**
+     * {@code coprime[r]} vale {@code true} se il residuo {@code r} è coprimo con il modulo.
+     */
+	private final boolean[] coprime;
+
+	/**
+     * {@code wheelPrime[r]} vale {@code true} se {@code r} è uno dei numeri primi che compongono la ruota.
+     */
+	private final boolean[] wheelPrime;
+
+	/**
+     * Distanza da {@code min} del numero massimo dell'intervallo.
+     */
+	private final long last;
+
+	/**
+     * Distanza da {@code min} del prossimo candidato.
+     */
+	private long offset = 0;
+
+	/**
+     * Distanza da {@code min} dell'ultimo candidato restituito, -1 se nessun candidato è stato restituito.
+     */
+	private long previous = -1;
+
+	/**
+     * Residuo modulo {@link #size} del prossimo candidato.
+     */
+	private int residue;
+
+	/**
+     * Indica se il prossimo candidato è minore del modulo, quindi se i numeri primi della ruota sono ancora candidati.
+     */
+	private boolean firstTurn;
+
+	/**
+     * Numeri scartati tra il penultimo e l'ultimo candidato restituito.
+     */
+	private long skipped = 0;
+
+	/**
+     * Questo costruttore prepara le tabelle della ruota e si posiziona sul primo candidato maggiore o uguale a {@code min}.
+	 * @param min numero minimo dell'intervallo, non negativo
+	 * @param max numero massimo dell'intervallo
+	 * @param size modulo della ruota: {@link #WHEEL_NONE}, {@link #WHEEL_30} o {@link #WHEEL_210}
+	 */
+	public WheelIterator(BigInteger min, BigInteger max, int size) {
+		if (size != WHEEL_NONE && size != WHEEL_30 && size != WHEEL_210) {
+			throw new IllegalArgumentException("Ruota non supportata: " + size);
+		}
+		this.size = size;
+		final BigInteger width = max.subtract(min);
+		this.last = (width.bitLength() < Long.SIZE - 1) ? width.longValue() : Long.MAX_VALUE - 2L * size;
+		this.coprime = new boolean[size];
+		this.wheelPrime = new boolean[size];
+		for (int r = 0; r < size; r++) {
+			coprime[r] = BigInteger.valueOf(r).gcd(BigInteger.valueOf(size)).intValue() == 1;
+			wheelPrime[r] = r > 1 && size % r == 0 && BigInteger.valueOf(r).isProbablePrime(10);
+		}
+		this.gap = new int[size];
+		this.gapFirst = new int[size];
+		for (int r = 0; r < size; r++) {
+			int d = 1;
+			while (!coprime[(r + d) % size]) d++;
+			gap[r] = d;
+		}
+		//primo residuo coprimo del giro, 0 solo per la ruota di modulo 1
+		final int firstCoprime = coprime[0] ? 0 : gap[0];
+		for (int r = 0; r < size; r++) {
+			int d = 1;
+			while (r + d < size && !coprime[r + d] && !wheelPrime[r + d]) d++;
+			//oltre il primo giro il successivo candidato è il primo coprimo del giro seguente
+			gapFirst[r] = (r + d < size) ? d : size - r + firstCoprime;
+		}
+		this.residue = min.mod(BigInteger.valueOf(size)).intValue();
+		this.firstTurn = min.compareTo(BigInteger.valueOf(size)) < 0;
+		if (!coprime[residue] && !(firstTurn && wheelPrime[residue])) {
+			moveNext();
+		}
+	}
+
+	/**
+     * Sposta il cursore sul candidato successivo.
+     */
+	private void moveNext() {
+		final int d = firstTurn ? gapFirst[residue] : gap[residue];
+		offset += d;
+		if (residue + d >= size) firstTurn = false;
+		residue = (residue + d) % size;
+	}
+
+	/**
+     * Verifica se esistono altri candidati nell'intervallo.
+	 * @return {@code true} se il prossimo candidato non supera {@code max}
+	 */
+	public boolean hasNext() {
+		return offset <= last;
+	}
+
+	/**
+     * Restituisce il prossimo candidato come distanza da {@code min} e aggiorna {@link #getSkipped()}.
+	 * @return distanza da {@code min} del candidato
+	 */
+	public long next() {
+		final long candidate = offset;
+		skipped = candidate - previous - 1;
+		previous = candidate;
+		moveNext();
+		return candidate;
+	}
+
+	/**
+     * Questo metodo ritorna quanti numeri dell'intervallo sono stati scartati tra il penultimo e l'ultimo candidato restituito.
+	 * @return numeri scartati prima dell'ultimo candidato
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+     * Questo metodo ritorna quanti numeri dell'intervallo seguono l'ultimo candidato restituito, da utilizzare quando {@link #hasNext()} restituisce {@code false}.
+	 * @return numeri scartati dopo l'ultimo candidato fino a {@code max}
+	 */
+	public long getRemaining() {
+		return last - previous;
+	}
+}
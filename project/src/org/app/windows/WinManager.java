@@ -12,6 +12,7 @@
 
 package org.app.windows;
 
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 import javax.swing.JFrame;
@@ -82,15 +83,18 @@ public class WinManager {
      * @param startCalcEncryption Runnable per avviare il calcolo della cifratura.
      * @param initAndCheckReadingFile Runnable per inizializzare e controllare il file di lettura.
      * @param checkFileOnchange Runnable per controllare le modifiche al file.
+     * @param stopCalcEncryption Runnable per interrompere il calcolo della cifratura.
+     * @param generateKey Runnable per generare una nuova chiave RSA.
+     * @param resumeCalcPrimality Runnable per riprendere il calcolo dei numeri primi dall'ultimo punto di ripresa.
      */
-    public WinManager(Runnable startCalcPrimality,Runnable stopCalcPrimality,Runnable startSavingPrimality,Runnable startCalcEncryption,Runnable initAndCheckReadingFile,Runnable checkFileOnchange){
+    public WinManager(Runnable startCalcPrimality,Runnable stopCalcPrimality,Runnable startSavingPrimality,Runnable startCalcEncryption,Runnable initAndCheckReadingFile,Runnable checkFileOnchange,Runnable stopCalcEncryption,Runnable generateKey,Runnable resumeCalcPrimality){
         try {
             UIManager.setLookAndFeel(new FlatLightLaf());
         } catch (UnsupportedLookAndFeelException e) {
             e.printStackTrace();
         }
-        winManagerPrimality = new WinManagerPrimality(getFrameWindowHome,stopCalcPrimality,startSavingPrimality,startCalcPrimality);
-        winManagerEncryption = new WinManagerEncryption(getFrameWindowHome,startCalcEncryption,initAndCheckReadingFile,checkFileOnchange);
+        winManagerPrimality = new WinManagerPrimality(getFrameWindowHome,stopCalcPrimality,startSavingPrimality,startCalcPrimality,resumeCalcPrimality);
+        winManagerEncryption = new WinManagerEncryption(getFrameWindowHome,startCalcEncryption,initAndCheckReadingFile,checkFileOnchange,stopCalcEncryption,generateKey);
 
         
 
@@ -202,6 +206,42 @@ public class WinManager {
         return winManagerPrimality.toStringMetodo();
     }
 
+    /**
+     * Restituisce lo stato dell'opzione del calcolo parallelo.
+     * 
+     * @return {@code true} se il calcolo parallelo è attivo, {@code false} altrimenti.
+     */
+    public boolean getParallel(){
+        return winManagerPrimality.getParallel();
+    }
+
+    /**
+     * Restituisce il modulo della ruota selezionata per generare i candidati.
+     *
+     * @return 1 se la ruota è disattivata, altrimenti 30 o 210.
+     */
+    public int getWheel(){
+        return winManagerPrimality.getWheel();
+    }
+
+    /**
+     * Restituisce il numero di basi casuali selezionato per il test di Miller-Rabin.
+     *
+     * @return Il numero di basi casuali provate per i numeri da circa 3,3 * 10^24 in su.
+     */
+    public int getRounds(){
+        return winManagerPrimality.getRounds();
+    }
+
+    /**
+     * Restituisce il percorso del file in cui salvare i numeri primi durante la ricerca.
+     *
+     * @return Il percorso del file, {@code null} se il salvataggio durante la ricerca non è attivo.
+     */
+    public String getStreamPath(){
+        return winManagerPrimality.getStreamPath();
+    }
+
     /**
      * Incrementa la barra di progresso nella finestra di test di primalità.
      */
@@ -209,29 +249,57 @@ public class WinManager {
         return winManagerPrimality.existWindowSaveInFile();
     }
 
+    /**
+     * Incrementa la barra di progresso nella finestra di test di primalità.
+     * 
+     * @param count Numero di candidati elaborati dall'ultimo aggiornamento.
+     */
+    public void incrementProgressBar(long count){
+        winManagerPrimality.incrementProgressBar(count);
+    }
+
     /**
      * Incrementa il conteggio dei numeri primi calcolati nella finestra di test di primalità.
+     * 
+     * @param count Numero di numeri primi calcolati dall'ultimo aggiornamento.
+     */
+    public void incrementCalculatedPrimeNumbers(long count){
+        winManagerPrimality.incrementCalculatedPrimeNumbers(count);
+    }
+
+    /**
+     * Imposta la raccolta dei risultati da cui la finestra di test di primalità legge i numeri primi calcolati.
+     * 
+     * @param source Funzione che restituisce in decimale il numero primo con l'indice dato.
      */
-    public void incrementProgressBar(){
-        winManagerPrimality.incrementProgressBar();
+    public void setResultsSource(IntFunction<String> source){
+        winManagerPrimality.setResultsSource(source);
     }
 
     /**
-     * Aggiunge un numero primo calcolato alla finestra di test di primalità.
+     * Aggiunge i numeri primi calcolati alla finestra di test di primalità.
      * 
-     * @param result Il numero primo calcolato come {@code String}.
+     * @param count Numero di numeri primi aggiunti alla raccolta dall'ultimo aggiornamento.
      */
-    public void incrementCalculatedPrimeNumbers(){
-        winManagerPrimality.incrementCalculatedPrimeNumbers();
+    public void appendCalculatedNumbers(long count){
+        winManagerPrimality.appendCalculatedNumbers(count);
     }
 
     /**
-     * Verifica se esiste una finestra di salvataggio dei numeri primi. Se non esiste, viene aperta.
+     * Prepara la finestra di test di primalità per un calcolo ripreso dall'ultimo punto di ripresa.
      * 
-     * @return {@code true} se la finestra di salvataggio esiste, {@code false} altrimenti.
+     * @param next Il prossimo numero da verificare.
+     * @param time Il tempo di calcolo delle esecuzioni precedenti in secondi.
      */
-    public void appendCalculatedNumber(String result){
-        winManagerPrimality.appendCalculatedNumber(result);
+    public void initWindowOutputResume(String next, double time){
+        winManagerPrimality.initWindowOutputResume(next, time);
+    }
+
+    /**
+     * Apre la finestra di errore quando non esiste una ricerca di numeri primi da riprendere.
+     */
+    public void openWindowErrorResume(){
+        winManagerPrimality.openWindowErrorResume();
     }
 
     /**
@@ -279,6 +347,63 @@ public class WinManager {
         winManagerEncryption.setResultsEncryption(results);
     }
 
+    /**
+     * Prepara la barra di avanzamento della finestra di output della cifratura RSA per un nuovo calcolo.
+     * 
+     * @param chunks Il numero di parti in cui è diviso il messaggio.
+     */
+    public void initProgressBarEncryption(int chunks){
+        winManagerEncryption.initProgressBarEncryption(chunks);
+    }
+
+    /**
+     * Incrementa la barra di avanzamento della finestra di output della cifratura RSA.
+     */
+    public void incrementProgressBarEncryption(){
+        winManagerEncryption.incrementProgressBarEncryption();
+    }
+
+    /**
+     * Termina il calcolo nella finestra di output della cifratura RSA mostrando lo stato dato.
+     * 
+     * @param state Il testo che descrive lo stato del calcolo.
+     */
+    public void endCalcEncryption(String state){
+        winManagerEncryption.endCalcEncryption(state);
+    }
+
+    /**
+     * Imposta la descrizione del calcolo della chiave privata nella finestra di output della cifratura RSA.
+     * 
+     * @param keyInfo La descrizione del calcolo della chiave privata come {@code String}.
+     */
+    public void setKeyInfoEncryption(String keyInfo){
+        winManagerEncryption.setKeyInfoEncryption(keyInfo);
+    }
+
+    /**
+     * Segnala l'avvio della generazione di una nuova chiave RSA nella finestra di cifratura RSA.
+     */
+    public void setKeyGenerating(){
+        winManagerEncryption.setKeyGenerating();
+    }
+
+    /**
+     * Segnala che la chiave in uso nella finestra di cifratura RSA è stata generata.
+     */
+    public void setKeyGenerated(){
+        winManagerEncryption.setKeyGenerated();
+    }
+
+    /**
+     * Restituisce se la chiave in uso nella finestra di cifratura RSA è stata generata invece di essere letta da file.
+     * 
+     * @return {@code true} se la chiave è stata generata, {@code false} altrimenti.
+     */
+    public boolean getKeyGenerated(){
+        return winManagerEncryption.getKeyGenerated();
+    }
+
     /**
      * Restituisce lo stato della scelta dell'inverso modulare nella finestra di cifratura RSA.
      * 
@@ -288,6 +413,24 @@ public class WinManager {
         return winManagerEncryption.getModInverse();
     }
 
+    /**
+     * Ottiene se è stata selezionata la decrittografia con il teorema cinese del resto.
+     * 
+     * @return true se CRT è selezionato, false altrimenti.
+     */
+    public boolean getCrt(){
+        return winManagerEncryption.getCrt();
+    }
+
+    /**
+     * Ottiene se è stata selezionata la cache dei caratteri cifrati e decifrati.
+     * 
+     * @return true se la cache è selezionata, false altrimenti.
+     */
+    public boolean getCache(){
+        return winManagerEncryption.getCache();
+    }
+
     /**
      * Apre la finestra di errore dell'output della cifratura RSA.
      */
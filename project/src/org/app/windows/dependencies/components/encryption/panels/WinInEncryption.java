@@ -44,17 +44,21 @@ import javax.swing.event.DocumentListener;
  */
 public class WinInEncryption {
     
-    /** Indice del metodo selezionato (0 = Crittografia, 1 = Decrittografia). */
+    /** Indice del metodo selezionato (0 = Crittografia, 1 = Decrittografia, 2 e 3 = le stesse a blocchi). */
     private int sceltaMetodo = 0;
 
     /** Opzioni di metodi di crittografia e decrittografia disponibili. */
     private final String[] metodi = {
         "Cripta messaggio con RSA",
         "Decripta messaggio con RSA",
+        "Cripta messaggio con RSA a blocchi",
+        "Decripta messaggio con RSA a blocchi",
     };
 
     /** Etichette per i messaggi a seconda del metodo selezionato. */
     private final String[] typeMessages = {
+        "<html>Messaggio<br>in chiaro:</html>",
+        "<html>Messaggio<br>cifrato:</html>",
         "<html>Messaggio<br>in chiaro:</html>",
         "<html>Messaggio<br>cifrato:</html>"
     };
@@ -65,6 +69,18 @@ public class WinInEncryption {
         "Off modInverse",
     };
 
+    /** Etichette per l'opzione della decrittografia con il teorema cinese del resto. */
+    private final String[] typeCrt = {
+        "On CRT",
+        "Off CRT",
+    };
+
+    /** Etichette per l'opzione della cache dei caratteri. */
+    private final String[] typeCache = {
+        "Off cache",
+        "On cache",
+    };
+
     /** Pannello principale per contenere tutti i componenti. */
     private final JPanel panel = new JPanel();
 
@@ -92,9 +108,24 @@ public class WinInEncryption {
     /** Pulsante per caricare un file di input. */
     private final JButton buttonFile = new JButton("Carica file");
 
+    /** Pulsante per generare una nuova chiave RSA invece di caricarla da file. */
+    private final JButton buttonGenerate = new JButton("Genera chiave");
+
+    /** Pannello per gestire il pulsante di generazione della chiave, il suo separatore e il pulsante di caricamento del file. */
+    private final JPanel filePanel = new JPanel(new BorderLayout());
+
+    /** Etichetta per il separatore visivo del pulsante di generazione della chiave. */
+    private final JLabel separatorGenerateLabel = new JLabel(" "); 
+
     /** Pulsante per attivare o disattivare l'opzione modInverse. */
     private final JButton buttonModInverse = new JButton(typeModInverse[0]);
 
+    /** Pulsante per attivare o disattivare la decrittografia con il teorema cinese del resto. */
+    private final JButton buttonCrt = new JButton(typeCrt[0]);
+
+    /** Pulsante per attivare o disattivare la cache dei caratteri cifrati e decifrati. */
+    private final JButton buttonCache = new JButton(typeCache[0]);
+
     /** Etichetta che visualizza lo stato del file caricato. */
     private final JLabel labelFile = new JLabel("Nessun file");
 
@@ -110,6 +141,18 @@ public class WinInEncryption {
     /** Etichetta per il separatore visivo. */
     private final JLabel separatorLabel = new JLabel(" "); 
 
+    /** Pannello per gestire l'opzione CRT e il suo separatore. */
+    private final JPanel crtPanel = new JPanel(new BorderLayout());
+
+    /** Etichetta per il separatore visivo dell'opzione CRT. */
+    private final JLabel separatorCrtLabel = new JLabel(" "); 
+
+    /** Pannello per gestire l'opzione della cache e il suo separatore. */
+    private final JPanel cachePanel = new JPanel(new BorderLayout());
+
+    /** Etichetta per il separatore visivo dell'opzione della cache. */
+    private final JLabel separatorCacheLabel = new JLabel(" "); 
+
     /** Area di testo per visualizzare i risultati. */
     private final JTextArea results = new JTextArea("");
 
@@ -122,6 +165,12 @@ public class WinInEncryption {
     /** Stato attuale dell'opzione modInverse (true = attivo, false = disattivato). */
     private boolean modInverse = true;
 
+    /** Stato attuale dell'opzione CRT (true = attivo, false = disattivato). */
+    private boolean crt = true;
+
+    /** Stato attuale dell'opzione della cache (true = attivo, false = disattivato). */
+    private boolean cache = false;
+
     /** Codice di errore per la gestione dello stato dell'input. */
     private String errorType = "1";
 
@@ -133,8 +182,9 @@ public class WinInEncryption {
      * @param openWindowErrorInput Runnable per aprire la finestra di errore in caso di input non valido.
      * @param openWindowReadingFile Runnable per aprire la finestra di lettura file.
      * @param checkFileOnchange Runnable per eseguire controlli sul file caricato quando cambia l'opzione modInverse.
+     * @param generateKey Runnable per generare una nuova chiave RSA.
      */
-    public WinInEncryption(Runnable openWindowErrorInput,Runnable openWindowReadingFile,Runnable checkFileOnchange) {
+    public WinInEncryption(Runnable openWindowErrorInput,Runnable openWindowReadingFile,Runnable checkFileOnchange,Runnable generateKey) {
         setInputTextAreaListener(results);
         
         gbc.insets = new Insets(0, 0, 10, 0);
@@ -156,6 +206,11 @@ public class WinInEncryption {
                 openWindowReadingFile.run();
             }
         });
+        buttonGenerate.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                generateKey.run();
+            }
+        });
         buttonModInverse.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 if(buttonModInverse.getText().equals(typeModInverse[0]) ){
@@ -169,6 +224,18 @@ public class WinInEncryption {
                 checkFileOnchange.run();
             }
         });
+        buttonCrt.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                crt = !crt;
+                buttonCrt.setText(typeCrt[crt ? 0 : 1]);
+            }
+        });
+        buttonCache.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                cache = !cache;
+                buttonCache.setText(typeCache[cache ? 1 : 0]);
+            }
+        });
         inputMetodo.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 sceltaMetodo = inputMetodo.getSelectedIndex();
@@ -195,6 +262,9 @@ public class WinInEncryption {
         buttonEsegui.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
         buttonFile.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
         buttonModInverse.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonCrt.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonCache.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonGenerate.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
 
         panelContainer.add(labelMetodo, gbc);
         gbc.gridx = 1;
@@ -240,12 +310,26 @@ public class WinInEncryption {
 
         modInversePanel.add(separatorLabel, BorderLayout.EAST);
 
+        separatorCrtLabel.setPreferredSize(new Dimension(widthSeparator, 1));
+        crtPanel.add(buttonCrt, BorderLayout.CENTER);
+        crtPanel.add(separatorCrtLabel, BorderLayout.EAST);
+        modInversePanel.add(crtPanel, BorderLayout.WEST);
+
+        separatorCacheLabel.setPreferredSize(new Dimension(widthSeparator, 1));
+        cachePanel.add(buttonCache, BorderLayout.CENTER);
+        cachePanel.add(separatorCacheLabel, BorderLayout.EAST);
+        crtPanel.add(cachePanel, BorderLayout.WEST);
+
         gbc.gridx = 1;
         panelContainer.add(modInversePanel, gbc);
 
         gbc.gridx = 2;
         
-        panelContainer.add(buttonFile,gbc);
+        separatorGenerateLabel.setPreferredSize(new Dimension(widthSeparator, 1));
+        filePanel.add(buttonGenerate, BorderLayout.WEST);
+        filePanel.add(separatorGenerateLabel, BorderLayout.CENTER);
+        filePanel.add(buttonFile, BorderLayout.EAST);
+        panelContainer.add(filePanel,gbc);
         
         gbc.gridx = 3;
 
@@ -285,6 +369,24 @@ public class WinInEncryption {
     public boolean getModInverse(){
         return modInverse;
     }
+
+    /**
+     * Restituisce lo stato dell'opzione CRT.
+     *
+     * @return true se la decrittografia utilizza il teorema cinese del resto, false se utilizza l'elevamento a potenza modulo n.
+     */
+    public boolean getCrt(){
+        return crt;
+    }
+
+    /**
+     * Restituisce lo stato dell'opzione della cache.
+     *
+     * @return true se i caratteri e i numeri cifrati già incontrati non vengono ricalcolati, false altrimenti.
+     */
+    public boolean getCache(){
+        return cache;
+    }
   
    
     /**
@@ -307,7 +409,7 @@ public class WinInEncryption {
     /**
      * Restituisce l'indice del metodo selezionato.
      *
-     * @return L'indice del metodo selezionato (0 = Crittografia, 1 = Decrittografia).
+     * @return L'indice del metodo selezionato (0 = Crittografia, 1 = Decrittografia, 2 e 3 = le stesse a blocchi).
      */
     public int getMetodo(){
         return sceltaMetodo;
@@ -362,6 +464,16 @@ public class WinInEncryption {
         labelFile.setText((state == false)?"Nessun file":"File caricato");
 
     }
+
+    /**
+     * Aggiorna l'etichetta dello stato del file durante e dopo la generazione della chiave.
+     *
+     * @param generated Se true, imposta l'etichetta su "Chiave generata", altrimenti "Generazione...".
+     */
+    public void setLabelKeyGenerated(boolean generated){
+        labelFile.setText(generated ? "Chiave generata" : "Generazione...");
+        buttonGenerate.setEnabled(generated);
+    }
     /**
      * Restituisce il codice di errore associato all'input corrente.
      * 
@@ -21,11 +21,14 @@ import java.awt.Insets;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 
@@ -33,6 +36,7 @@ import javax.swing.JTextArea;
 /**
  * Classe che rappresenta la finestra di output per la cifratura/decifratura.
  * Consente di visualizzare i risultati del processo e di copiarli negli appunti.
+ * Durante il calcolo mostra l'avanzamento delle parti elaborate e permette di interromperlo.
  * @author Vittorio Piotti
  * @version 1.0
  * @since 16-10-2023
@@ -69,6 +73,26 @@ public class WinOutEncryption {
      */
     private final JButton buttonCopy = new JButton("Copia tutto");
 
+    /**
+     * Il pulsante per interrompere il calcolo in corso.
+     */
+    private final JButton buttonStop = new JButton("Interrompi");
+
+    /**
+     * La barra di avanzamento delle parti del messaggio elaborate.
+     */
+    private final JProgressBar progressBar = new JProgressBar();
+
+    /**
+     * L'etichetta che visualizza lo stato del calcolo.
+     */
+    private final JLabel stateCalculus = new JLabel("");
+
+    /**
+     * Pannello che contiene la barra di avanzamento, il pulsante di interruzione e lo stato del calcolo.
+     */
+    private final JPanel containerLoadingInfo = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+
     /**
      * Array di stringhe che contiene i messaggi descrittivi per il tipo di output.
      * Usato per cambiare dinamicamente l'etichetta in base al metodo selezionato.
@@ -76,6 +100,8 @@ public class WinOutEncryption {
     private final String[] typeMessages = {
         "<html>Messaggio<br>cifrato:</html>",
         "<html>Messaggio<br>in chiaro:</html>",
+        "<html>Messaggio<br>cifrato:</html>",
+        "<html>Messaggio<br>in chiaro:</html>",
     };
 
     /**
@@ -83,6 +109,11 @@ public class WinOutEncryption {
      */
     private final JLabel labelMessage = new JLabel(typeMessages[0]);
 
+    /**
+     * Etichetta che visualizza il metodo di calcolo della chiave privata e il confronto con la ricerca lineare.
+     */
+    private final JLabel labelKey = new JLabel("");
+
     /**
      * Etichetta che visualizza un messaggio predefinito quando non sono presenti risultati.
      */
@@ -124,8 +155,10 @@ public class WinOutEncryption {
      * Costruttore della classe WinOutEncryption.
      * Inizializza la finestra con il layout predefinito e configura i componenti dell'interfaccia.
      * Gestisce l'azione del pulsante di copia e prepara il layout per la visualizzazione dei risultati.
+     *
+     * @param stopCalc Runnable che definisce l'azione da eseguire quando si interrompe il calcolo.
      */
-    public WinOutEncryption() {
+    public WinOutEncryption(Runnable stopCalc) {
       
         gbc.insets = new Insets(0, 0, 10, 0);
         
@@ -147,6 +180,9 @@ public class WinOutEncryption {
         labelMessage.setFont(new Font(labelMessage.getFont().getName(), Font.PLAIN, 13));
 
         buttonCopy.setFont(new Font(buttonCopy.getFont().getName(), Font.PLAIN, 13));
+        labelKey.setFont(new Font(labelKey.getFont().getName(), Font.PLAIN, 11));
+        buttonStop.setFont(new Font(buttonStop.getFont().getName(), Font.PLAIN, 13));
+        stateCalculus.setFont(new Font(stateCalculus.getFont().getName(), Font.PLAIN, 13));
         labelMessage.setPreferredSize(new Dimension(100, 30));
 
         buttonCopy.addActionListener(e -> {
@@ -155,6 +191,12 @@ public class WinOutEncryption {
             StringSelection stringSelection = new StringSelection(copiedText);
             clipboard.setContents(stringSelection, null);
         });
+        buttonStop.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                stopCalc.run();
+                endCalc("Calcolo interrotto");
+            }
+        });
         gbc.anchor = GridBagConstraints.WEST;
         gbc.gridy = 2; 
         gbc.gridx = 0;
@@ -172,11 +214,26 @@ public class WinOutEncryption {
         scrollPaneResults.setPreferredSize(new Dimension(width, height));
         containerResults.add(scrollPaneResults);
         panelContainer.add(containerResults, gbc);
+        gbc.anchor = GridBagConstraints.WEST; 
+        gbc.gridy = 3;
+        gbc.gridx = 0;
+        gbc.gridwidth = 3;
+        panelContainer.add(labelKey, gbc);
         gbc.anchor = GridBagConstraints.EAST; 
         gbc.gridy = 3;
         gbc.gridx = 3;
         gbc.gridwidth = 3;
         panelContainer.add(buttonCopy, gbc);
+        progressBar.setPreferredSize(new Dimension(120, 15));
+        stateCalculus.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
+        containerLoadingInfo.add(progressBar);
+        containerLoadingInfo.add(buttonStop);
+        containerLoadingInfo.add(stateCalculus);
+        gbc.anchor = GridBagConstraints.WEST; 
+        gbc.gridy = 4;
+        gbc.gridx = 0;
+        gbc.gridwidth = 6;
+        panelContainer.add(containerLoadingInfo, gbc);
 
     
         
@@ -201,7 +258,7 @@ public class WinOutEncryption {
      * Inizializza la finestra di output con l'interfaccia specifica per il metodo selezionato.
      *
      * @param metodo L'indice del metodo selezionato, dove 0 corrisponde alla cifratura
-     *               e 1 alla decifratura. Questo indice determina il messaggio visualizzato.
+     *               e 1 alla decifratura, 2 e 3 alle stesse a blocchi. Questo indice determina il messaggio visualizzato.
      */
     public void initWindow(int metodo){
         panel.removeAll();
@@ -212,6 +269,39 @@ public class WinOutEncryption {
 
     }
 
+    /**
+     * Prepara la barra di avanzamento per un nuovo calcolo e svuota i risultati precedenti.
+     *
+     * @param chunks Il numero di parti in cui è diviso il messaggio.
+     */
+    public void initProgressBar(int chunks){
+        results.setText("");
+        progressBar.setMinimum(0);
+        progressBar.setMaximum(chunks);
+        progressBar.setValue(0);
+        stateCalculus.setText("Calcolo in corso");
+        buttonStop.setEnabled(true);
+    }
+
+    /**
+     * Incrementa il valore della barra di avanzamento di una parte.
+     */
+    public void incrementProgressBar(){
+        if (progressBar.getValue() != progressBar.getMaximum()) {
+            progressBar.setValue(progressBar.getValue() + 1);
+        }
+    }
+
+    /**
+     * Termina il calcolo disabilitando il pulsante di interruzione e mostrando lo stato dato.
+     *
+     * @param state Il testo che descrive lo stato del calcolo.
+     */
+    public void endCalc(String state){
+        buttonStop.setEnabled(false);
+        stateCalculus.setText(state);
+    }
+
     /**
      * Restituisce il pannello principale della finestra, contenente tutti i componenti.
      *
@@ -231,6 +321,15 @@ public class WinOutEncryption {
     public void setResults(String results){
         this.results.setText(results);
     }
+
+    /**
+     * Imposta il testo che descrive il calcolo della chiave privata.
+     *
+     * @param keyInfo Una stringa con il metodo di calcolo della chiave, vuota per nasconderla.
+     */
+    public void setKeyInfo(String keyInfo){
+        labelKey.setText(keyInfo);
+    }
    
     
   
@@ -0,0 +1,162 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.windows.dependencies.components.primality.panels;
+
+import java.math.BigInteger;
+
+/**
+ * La classe `ProgressModel` tiene traccia dell'avanzamento di una ricerca su un intervallo di qualsiasi ampiezza.
+ * I candidati elaborati vengono confrontati con l'ampiezza dell'intervallo come {@link BigInteger} e l'avanzamento
+ * viene scalato su una barra di {@link #RESOLUTION} passi, quindi intervalli oltre il limite di un {@code int} non causano overflow.
+ * La velocità, in candidati al secondo, è calcolata su una finestra mobile di {@link #WINDOW_SAMPLES} campioni presi
+ * ogni {@link #SAMPLE_INTERVAL_NANOS} nanosecondi e da essa viene stimato il tempo rimanente.
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class ProgressModel {
+
+    /**
+     * Numero di passi della barra di avanzamento.
+     */
+    public static final int RESOLUTION = 10000;
+
+    /**
+     * Numero di campioni della finestra mobile con cui viene calcolata la velocità.
+     */
+    public static final int WINDOW_SAMPLES = 20;
+
+    /**
+     * Intervallo minimo in nanosecondi tra due campioni, con {@link #WINDOW_SAMPLES} la finestra copre circa 5 secondi.
+     */
+    public static final long SAMPLE_INTERVAL_NANOS = 250_000_000L;
+
+    /**
+     * Ampiezza dell'intervallo, cioè numero totale di candidati.
+     */
+    private BigInteger width = BigInteger.ONE;
+
+    /**
+     * Candidati elaborati.
+     */
+    private BigInteger done = BigInteger.ZERO;
+
+    /**
+     * Istanti dei campioni in nanosecondi, in un buffer circolare.
+     */
+    private final long[] sampleTimes = new long[WINDOW_SAMPLES];
+
+    /**
+     * Candidati elaborati al momento di ogni campione, in un buffer circolare.
+     */
+    private final double[] sampleDone = new double[WINDOW_SAMPLES];
+
+    /**
+     * Numero di campioni presi.
+     */
+    private long samples = 0;
+
+    /**
+     * Avvia una nuova ricerca sull'intervallo dato.
+     *
+     * @param min Il valore minimo dell'intervallo.
+     * @param max Il valore massimo dell'intervallo.
+     * @param now L'istante di inizio in nanosecondi.
+     */
+    public void reset(BigInteger min, BigInteger max, long now) {
+        width = max.subtract(min).add(BigInteger.ONE).max(BigInteger.ONE);
+        done = BigInteger.ZERO;
+        samples = 0;
+        sample(now);
+    }
+
+    /**
+     * Riprende una ricerca interrotta, considerando già elaborati i numeri dal minimo fino al prossimo numero da verificare escluso.
+     * La velocità viene misurata di nuovo da questo istante, così i numeri già elaborati non la alterano.
+     *
+     * @param min Il valore minimo dell'intervallo.
+     * @param next Il prossimo numero da verificare.
+     * @param now L'istante della ripresa in nanosecondi.
+     */
+    public void resume(BigInteger min, BigInteger next, long now) {
+        done = next.subtract(min).max(BigInteger.ZERO).min(width);
+        samples = 0;
+        sample(now);
+    }
+
+    /**
+     * Aggiunge un gruppo di candidati elaborati e prende un campione se è trascorso {@link #SAMPLE_INTERVAL_NANOS} dall'ultimo.
+     *
+     * @param count Il numero di candidati elaborati.
+     * @param now L'istante corrente in nanosecondi.
+     */
+    public void add(long count, long now) {
+        done = done.add(BigInteger.valueOf(count)).min(width);
+        if (now - sampleTimes[(int) ((samples - 1) % WINDOW_SAMPLES)] >= SAMPLE_INTERVAL_NANOS) sample(now);
+    }
+
+    /**
+     * Salva un campione nel buffer circolare, sostituendo il più vecchio.
+     *
+     * @param now L'istante del campione in nanosecondi.
+     */
+    private void sample(long now) {
+        final int slot = (int) (samples % WINDOW_SAMPLES);
+        sampleTimes[slot] = now;
+        sampleDone[slot] = done.doubleValue();
+        samples++;
+    }
+
+    /**
+     * Restituisce il valore della barra di avanzamento.
+     *
+     * @return Un valore da 0 a {@link #RESOLUTION}.
+     */
+    public int getValue() {
+        return done.multiply(BigInteger.valueOf(RESOLUTION)).divide(width).intValue();
+    }
+
+    /**
+     * Indica se tutti i candidati sono stati elaborati.
+     *
+     * @return true se la ricerca è completa.
+     */
+    public boolean isComplete() {
+        return done.compareTo(width) >= 0;
+    }
+
+    /**
+     * Restituisce la velocità tra il campione più vecchio e il più recente della finestra mobile.
+     *
+     * @return La velocità in candidati al secondo, 0 se non ci sono ancora due campioni.
+     */
+    public double getRate() {
+        if (samples < 2) return 0;
+        final int newest = (int) ((samples - 1) % WINDOW_SAMPLES);
+        final int oldest = (int) ((samples < WINDOW_SAMPLES) ? 0 : samples % WINDOW_SAMPLES);
+        final long elapsed = sampleTimes[newest] - sampleTimes[oldest];
+        if (elapsed <= 0) return 0;
+        return (sampleDone[newest] - sampleDone[oldest]) * 1e9 / elapsed;
+    }
+
+    /**
+     * Restituisce il tempo rimanente stimato con la velocità della finestra mobile.
+     *
+     * @return Il tempo rimanente in secondi, negativo se la velocità non è ancora nota.
+     */
+    public double getEta() {
+        final double rate = getRate();
+        if (rate <= 0) return -1;
+        return width.subtract(done).doubleValue() / rate;
+    }
+}
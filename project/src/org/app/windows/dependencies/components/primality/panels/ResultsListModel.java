@@ -0,0 +1,76 @@
+/*
+    Fermat And RSA v1.0.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/releases/tag/1.0.0)
+    Copyright 2024 Vittorio Piotti
+    Licensed under GPL-3.0 (https://github.com/vittorioPiotti/Fermat-And-RSA/blob/main/LICENSE.md)
+*/
+
+/*
+    FlatLaf v3.2.5 (https://github.com/JFormDesigner/FlatLaf/releases/tag/3.2.5)
+    Copyright 2024 JFormDesigner GmbH
+    Licensed under Apache License 2.0 (https://github.com/JFormDesigner/FlatLaf/blob/main/LICENSE)
+*/
+
+package org.app.windows.dependencies.components.primality.panels;
+
+import java.util.function.IntFunction;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * La classe `ResultsListModel` è il modello della lista dei risultati di {@link WinOutPrimality}.
+ * Non memorizza i numeri primi ma li legge, solo quando una riga viene visualizzata, dalla raccolta
+ * dei risultati del calcolo, quindi la memoria occupata e il costo di un aggiornamento non dipendono
+ * dal numero di risultati.
+ * La dimensione della lista cresce solo con {@link #grow(long)}, dopo che il calcolo ha aggiunto i numeri alla raccolta.
+ * @author Vittorio Piotti
+ * @version 1.0
+ * @since 16-10-2023
+ */
+public class ResultsListModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Funzione che restituisce in decimale il numero primo con l'indice dato, null se non c'è un calcolo.
+     */
+    private IntFunction<String> source;
+
+    /**
+     * Numero di righe della lista.
+     */
+    private int size = 0;
+
+    /**
+     * Imposta la raccolta da cui leggere i numeri primi e svuota la lista.
+     *
+     * @param source Funzione che restituisce in decimale il numero primo con l'indice dato, null per svuotare la lista.
+     */
+    public void setSource(IntFunction<String> source) {
+        final int oldSize = size;
+        this.source = source;
+        size = 0;
+        if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+
+    /**
+     * Aggiunge in fondo alla lista i numeri primi aggiunti alla raccolta dall'ultimo aggiornamento.
+     *
+     * @param count Numero di numeri primi aggiunti.
+     */
+    public void grow(long count) {
+        if (source == null || count <= 0) return;
+        final int oldSize = size;
+        size = (int) Math.min(Integer.MAX_VALUE, size + count);
+        if (size > oldSize) fireIntervalAdded(this, oldSize, size - 1);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return "   " + source.apply(index);
+    }
+}
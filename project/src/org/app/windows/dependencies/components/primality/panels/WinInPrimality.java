@@ -31,6 +31,8 @@ import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 
+import org.app.applications.primality.PrimalityStrategies;
+
 
 /**
  * La classe WinInPrimality gestisce la finestra di input per l'algoritmo di verifica della primalità. 
@@ -47,16 +49,53 @@ public class WinInPrimality {
     private int sceltaMetodo = 0;
 
     /**
-     * Array di stringhe contenente i nomi dei metodi disponibili per il calcolo della primalità.
+     * Array di stringhe contenente i nomi dei metodi disponibili per il calcolo della primalità, nell'ordine del registro {@link PrimalityStrategies}.
+     */
+    private final String[] metodi = PrimalityStrategies.names();
+
+    /**
+     * Etichette per l'opzione del calcolo parallelo.
+     */
+    private final String[] typeParallel = {
+        "Off parallelo",
+        "On parallelo",
+    };
+
+    /**
+     * Etichette per l'opzione della ruota dei candidati.
+     */
+    private final String[] typeWheel = {
+        "Off ruota",
+        "Ruota 2-3-5",
+        "Ruota 2-3-5-7",
+    };
+
+    /**
+     * Moduli delle ruote corrispondenti alle etichette di {@link #typeWheel}.
      */
-    private final String[] metodi = {
-		"Divisori fino al numero anche pari no break",
-		"Divisori fino al numero anche pari con break",
-		"Divisori fino alla meta anche pari no break",
-		"Divisori fino alla meta solo dispari no break",
-		"Divisori fino alla radice solo dispari con break",
-		"Algoritmo di Fermat"
-	};
+    private final int[] wheelSizes = {1, 30, 210};
+
+    /**
+     * Etichette per l'opzione delle basi casuali di Miller-Rabin, utilizzate solo per i numeri da circa 3,3 * 10^24 in su.
+     */
+    private final String[] typeRounds = {
+        "Basi 20",
+        "Basi 40",
+        "Basi 5",
+    };
+
+    /**
+     * Numeri di basi casuali corrispondenti alle etichette di {@link #typeRounds}.
+     */
+    private final int[] roundsValues = {20, 40, 5};
+
+    /**
+     * Etichette per l'opzione del salvataggio durante la ricerca.
+     */
+    private final String[] typeStreamSave = {
+        "Off salva durante",
+        "On salva durante",
+    };
 
     /**
      * Pannello principale che contiene il layout della finestra.
@@ -132,6 +171,56 @@ public class WinInPrimality {
      * Bottone per eseguire l'algoritmo di verifica della primalità.
      */
    	private final JButton buttonEsegui = new JButton("Esegui");
+
+    /**
+     * Bottone per riprendere dall'ultimo punto di ripresa la ricerca interrotta con lo stesso intervallo e lo stesso metodo.
+     */
+   	private final JButton buttonRiprendi = new JButton("Riprendi");
+
+    /**
+     * Indica se l'ultima esecuzione richiesta riprende la ricerca interrotta invece di avviarne una nuova.
+     */
+    private boolean resume = false;
+ 
+    /**
+     * Bottone per attivare o disattivare il calcolo parallelo.
+     */
+   	private final JButton buttonParallel = new JButton(typeParallel[0]);
+
+    /**
+     * Stato attuale dell'opzione del calcolo parallelo (true = attivo, false = disattivato).
+     */
+    private boolean parallel = false;
+
+    /**
+     * Bottone per scegliere la ruota utilizzata per scartare i candidati multipli di 2, 3, 5 e 7.
+     */
+   	private final JButton buttonWheel = new JButton(typeWheel[0]);
+
+    /**
+     * Indice della ruota scelta dall'utente.
+     */
+    private int sceltaWheel = 0;
+
+    /**
+     * Bottone per scegliere il numero di basi casuali.
+     */
+   	private final JButton buttonRounds = new JButton(typeRounds[0]);
+
+    /**
+     * Indice del numero di basi casuali scelto dall'utente.
+     */
+    private int sceltaRounds = 0;
+
+    /**
+     * Bottone per attivare o disattivare il salvataggio dei numeri primi su file durante la ricerca.
+     */
+   	private final JButton buttonStreamSave = new JButton(typeStreamSave[0]);
+
+    /**
+     * Stato attuale dell'opzione del salvataggio durante la ricerca (true = attivo, false = disattivato).
+     */
+    private boolean streamSave = false;
  
     /**
      * Stringa che memorizza l'errore corrente.
@@ -173,11 +262,43 @@ public class WinInPrimality {
         });
         buttonEsegui.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
+                resume = false;
                 errorType = findError();
                 openWindowErrorInput.run();
 
             }
         });
+        buttonRiprendi.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                resume = true;
+                errorType = findError();
+                openWindowErrorInput.run();
+            }
+        });
+        buttonParallel.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                parallel = !parallel;
+                buttonParallel.setText(typeParallel[parallel ? 1 : 0]);
+            }
+        });
+        buttonWheel.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                sceltaWheel = (sceltaWheel + 1) % typeWheel.length;
+                buttonWheel.setText(typeWheel[sceltaWheel]);
+            }
+        });
+        buttonRounds.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                sceltaRounds = (sceltaRounds + 1) % typeRounds.length;
+                buttonRounds.setText(typeRounds[sceltaRounds]);
+            }
+        });
+        buttonStreamSave.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                streamSave = !streamSave;
+                buttonStreamSave.setText(typeStreamSave[streamSave ? 1 : 0]);
+            }
+        });
         panel.setLayout(new FlowLayout(FlowLayout.LEFT));
         panelContainer.setLayout(new GridBagLayout());
         panelContainer.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 0));
@@ -194,6 +315,10 @@ public class WinInPrimality {
         labelMetodo.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
         inputMetodo.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
         buttonEsegui.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonParallel.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonWheel.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonRounds.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
+        buttonStreamSave.setFont(new Font(labelMetodo.getFont().getName(), Font.PLAIN, 13));
         panelContainer.add(labelMetodo, gbc);
         gbc.gridx = 1;
         gbc.gridwidth = 4; 
@@ -206,7 +331,14 @@ public class WinInPrimality {
         gbc.anchor = GridBagConstraints.WEST;
         gbc.gridx = 0;
         gbc.gridwidth = 4; 
-        panelContainer.add(buttonEsegui,gbc);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        buttonPanel.add(buttonEsegui);
+        buttonPanel.add(buttonRiprendi);
+        buttonPanel.add(buttonParallel);
+        buttonPanel.add(buttonWheel);
+        buttonPanel.add(buttonRounds);
+        buttonPanel.add(buttonStreamSave);
+        panelContainer.add(buttonPanel,gbc);
         panel.add(panelContainer);
     }
     
@@ -333,6 +465,51 @@ public class WinInPrimality {
          return metodi[sceltaMetodo];
     }
 
+    /**
+     * Restituisce lo stato dell'opzione del calcolo parallelo.
+     *
+     * @return true se il calcolo parallelo è attivo, false altrimenti.
+     */
+    public boolean getParallel(){
+        return parallel;
+    }
+
+    /**
+     * Restituisce il modulo della ruota selezionata.
+     *
+     * @return 1 se la ruota è disattivata, altrimenti 30 o 210.
+     */
+    public int getWheel(){
+        return wheelSizes[sceltaWheel];
+    }
+
+    /**
+     * Restituisce il numero di basi casuali selezionato.
+     *
+     * @return Il numero di basi casuali provate da Miller-Rabin per i numeri da circa 3,3 * 10^24 in su, sotto il test è deterministico.
+     */
+    public int getRounds(){
+        return roundsValues[sceltaRounds];
+    }
+
+    /**
+     * Restituisce lo stato dell'opzione del salvataggio durante la ricerca.
+     *
+     * @return true se i numeri primi devono essere salvati su file durante la ricerca, false altrimenti.
+     */
+    public boolean getStreamSave(){
+        return streamSave;
+    }
+
+    /**
+     * Restituisce se l'ultima esecuzione richiesta riprende la ricerca interrotta.
+     *
+     * @return true se è stato premuto il bottone per riprendere, false se è stato premuto il bottone per eseguire.
+     */
+    public boolean getResume(){
+        return resume;
+    }
+
     /**
      * Imposta le proprietà del layout per una riga di input.
      * 
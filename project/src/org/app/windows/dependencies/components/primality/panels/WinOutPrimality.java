@@ -13,7 +13,6 @@
 package org.app.windows.dependencies.components.primality.panels;
 
 import java.awt.BorderLayout;
-import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
@@ -24,17 +23,19 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.AdjustmentEvent;
 import java.awt.event.AdjustmentListener;
+import java.math.BigInteger;
+import java.util.function.IntFunction;
 
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
 import javax.swing.UIManager;
 
 
@@ -138,17 +139,22 @@ public class WinOutPrimality {
     private final GridBagConstraints gbcDef = new GridBagConstraints();
 
     /**
-     * Area di testo utilizzata per visualizzare i risultati del calcolo.
+     * Modello della lista dei risultati, che legge i numeri primi dalla raccolta dei risultati del calcolo.
      */
-    private final JTextArea results = new JTextArea("");
+    private final ResultsListModel resultsModel = new ResultsListModel();
 
     /**
-     * Panello che contiene l'area di testo per i risultati.
+     * Lista utilizzata per visualizzare i risultati del calcolo, che disegna solo le righe visibili.
+     */
+    private final JList<String> results = new JList<>(resultsModel);
+
+    /**
+     * Panello che contiene la lista dei risultati.
      */
     private final JScrollPane scrollPaneResults = new JScrollPane(results);
 
     /**
-     * Pannello che contiene l'area di testo dei risultati.
+     * Pannello che contiene la lista dei risultati.
      */
     private final JPanel containerResults = new JPanel();
 
@@ -168,9 +174,14 @@ public class WinOutPrimality {
     private long startTime = System.currentTimeMillis();
 
     /**
-     * Etichetta per visualizzare un avviso quando non è possibile stimare il tempo di attesa.
+     * Etichetta per visualizzare il tempo di attesa stimato e la velocità del calcolo.
      */
-    private final JLabel loadingAdvertise = new JLabel("Impossibile stimare attesa");
+    private final JLabel labelEstimate = new JLabel("Attesa stimata: -");
+
+    /**
+     * Modello dell'avanzamento, che confronta i candidati elaborati con l'ampiezza dell'intervallo e stima il tempo di attesa.
+     */
+    private final ProgressModel progressModel = new ProgressModel();
 
     /**
      * Etichetta per visualizzare un messaggio che indica che i risultati saranno mostrati in questa area.
@@ -178,19 +189,19 @@ public class WinOutPrimality {
     private final JLabel advertiseOutput = new JLabel("I risultati saranno visualizzati qui");
 
     /**
-     * Barra di scorrimento verticale dell'area di testo dei risultati.
+     * Barra di scorrimento verticale della lista dei risultati.
      */
     private final JScrollBar scrollBarResults = scrollPaneResults.getVerticalScrollBar();
 
     /**
-     * Flag che indica se l'utente ha interagito con la barra di scorrimento dell'area di testo dei risultati.
+     * Flag che indica se l'utente ha interagito con la barra di scorrimento della lista dei risultati.
      */
     private boolean scrolled = false;
 
     /**
      * Numero di numeri primi calcolati fino ad ora.
      */
-    private int calculatedNumers = 0;
+    private long calculatedNumers = 0;
     /**
      * Funzione Runnable per interrompere il calcolo in corso.
      */
@@ -244,7 +255,6 @@ public class WinOutPrimality {
      */
     public WinOutPrimality(Runnable stopCalc,Runnable openWindowSaveInFile){
         this.stopCalc = stopCalc;
-        loadingAdvertise.setFont(loadingAdvertise.getFont().deriveFont(Font.ITALIC));
         gbc.insets = new Insets(0, 0, 10, 0);
         scrollBarResults.addAdjustmentListener(new AdjustmentListener() {
             @Override
@@ -274,8 +284,9 @@ public class WinOutPrimality {
 
             }
         });
-        results.setEditable(false);
-        results.setCaretPosition(0);
+        //con una riga di esempio la lista non misura ogni riga per calcolare le proprie dimensioni
+        results.setPrototypeCellValue("   0000000000");
+        results.setFocusable(false);
         panel.setLayout(new FlowLayout(FlowLayout.LEFT)); 
         panelContainer.setLayout(new GridBagLayout());
         panelContainer.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 0));
@@ -284,7 +295,7 @@ public class WinOutPrimality {
         newLabelRow(labelMax,Font.PLAIN,13,2,0);
         newLabelRow(labelNum,Font.PLAIN,13,3,0);
         newLabelRow(labelTime,Font.PLAIN,13,4,0);
-        newLabelRow(labelTime,Font.PLAIN,13,5,0);
+        newLabelRow(labelEstimate,Font.ITALIC,13,5,0);
         gbc.insets = new Insets(0, 0, 0, 0);
 
         newLabelRow(containerLoadingInfo,Font.PLAIN,13,6,0);
@@ -342,34 +353,45 @@ public class WinOutPrimality {
 
     /**
      * Incrementa il numero di numeri primi calcolati e aggiorna l'etichetta che mostra questo numero.
+     *
+     * @param count Numero di numeri primi calcolati dall'ultimo aggiornamento.
      */
-    public void incrementCalculatedPrimeNumbers(){
-        calculatedNumers++;
+    public void incrementCalculatedPrimeNumbers(long count){
+        calculatedNumers += count;
         labelNum.setText("Numeri calcolati: " + calculatedNumers);
     }
 
     /**
-     * Aggiunge un risultato calcolato all'area di testo dei risultati.
+     * Imposta la raccolta dei risultati del calcolo da cui la lista legge i numeri primi.
+     *
+     * @param source Funzione che restituisce in decimale il numero primo con l'indice dato.
+     */
+    public void setResultsSource(IntFunction<String> source){
+        resultsModel.setSource(source);
+    }
+
+    /**
+     * Aggiunge alla lista dei risultati i numeri primi aggiunti alla raccolta dall'ultimo aggiornamento.
      * Scorre automaticamente verso il basso se l'utente non ha interagito con la barra di scorrimento.
      *
-     * @param result Il risultato calcolato da aggiungere all'area di testo.
+     * @param count Numero di numeri primi aggiunti.
      */
-    public void appendCalculatedNumber(String result){
-        results.append(result);
-        if(scrolled == false)results.setCaretPosition(results.getDocument().getLength());
+    public void appendCalculatedNumbers(long count){
+        resultsModel.grow(count);
+        if(scrolled == false && resultsModel.getSize() > 0)results.ensureIndexIsVisible(resultsModel.getSize() - 1);
     }    
     
     /**
      * Inizializza la barra di avanzamento e aggiorna l'interfaccia utente per il calcolo in corso.
      * Imposta il testo delle etichette, ripristina lo stato del calcolo e avvia il timer.
-     * Se il valore massimo è lungo più di 10 caratteri, visualizza un'etichetta di avviso
-     * invece della barra di avanzamento.
+     * La barra di avanzamento ha {@link ProgressModel#RESOLUTION} passi per qualsiasi ampiezza dell'intervallo.
      *
      * @param max Il valore massimo del calcolo.
      * @param min Il valore minimo del calcolo.
      */
     public void initProgressBar(String max,String min){
-        results.setText("");
+        resultsModel.setSource(null);
+        results.setPrototypeCellValue("   " + max);
         containerLoadingInfo.removeAll();
         stateCalculus.setIcon(null);
         stateCalculus.setText("");
@@ -378,22 +400,35 @@ public class WinOutPrimality {
         labelMax.setText("Massimo: " + ((getExp(max) != 0)?getNum(max) + " * 10 ^ "+getExp(max):max) +"\n");
         labelTime.setText("Tempo di calcolo: 00:00");
         labelNum.setText("Numeri calcolati: 0");
+        labelEstimate.setText("Attesa stimata: -");
         startTime = System.currentTimeMillis();
         timer.start();
-        if(max.length() <= 10){
-            progressBar.setStringPainted(false);
-            progressBar.setIndeterminate(false);
-            progressBar.setValue(0);
-            progressBar.setMinimum(0);
-            progressBar.setMaximum(Integer.parseInt(max) - Integer.parseInt(min));
-            containerLoadingInfo.add(progressBar, BorderLayout.WEST);
-        }else{
-            containerLoadingInfo.add(loadingAdvertise);
-        }
+        progressModel.reset(new BigInteger(min), new BigInteger(max), System.nanoTime());
+        progressBar.setStringPainted(false);
+        progressBar.setIndeterminate(false);
+        progressBar.setMinimum(0);
+        progressBar.setMaximum(ProgressModel.RESOLUTION);
+        progressBar.setValue(0);
+        containerLoadingInfo.add(progressBar, BorderLayout.WEST);
         panel.revalidate(); // Aggiorna il layout
         panel.repaint(); 
     }
 
+    /**
+     * Aggiorna la barra di avanzamento e il tempo di calcolo per una ricerca ripresa dall'ultimo punto di ripresa.
+     * Va invocato dopo {@link #initProgressBar(String, String)}.
+     *
+     * @param min Il valore minimo del calcolo.
+     * @param next Il prossimo numero da verificare.
+     * @param time Il tempo di calcolo delle esecuzioni precedenti in secondi.
+     */
+    public void resumeProgressBar(String min,String next,double time){
+        startTime = System.currentTimeMillis() - (long) (time * 1000);
+        updateTime();
+        progressModel.resume(new BigInteger(min), new BigInteger(next), System.nanoTime());
+        progressBar.setValue(progressModel.getValue());
+    }
+
     /**
      * Aggiunge un nuovo componente all'interfaccia utente in una riga e colonna specifica
      * con il formato di font specificato.
@@ -429,22 +464,40 @@ public class WinOutPrimality {
      * Incrementa il valore della barra di avanzamento e aggiorna lo stato se il calcolo è completato.
      * Se il valore della barra di avanzamento raggiunge il massimo, disabilita il pulsante di stop,
      * ferma il timer e aggiorna lo stato del calcolo per indicare che il calcolo è terminato.
-     */
-    public void incrementProgressBar(){
-        Component[] components = containerLoadingInfo.getComponents();
-        if(components != null && components[0] instanceof JProgressBar){
-            if (progressBar.getValue() != progressBar.getMaximum()) {
-            progressBar.setValue(progressBar.getValue() + 1);
-                if (progressBar.getValue() == progressBar.getMaximum()){
-                    buttonStop.setEnabled(false); 
-                    timer.stop();
-                    stateCalculus.setIcon(alertIcon);
-                    stateCalculus.setText("Calcolo terminato");
-                }
-            }
+     *
+     * @param count Numero di candidati elaborati dall'ultimo aggiornamento.
+     */
+    public void incrementProgressBar(long count){
+        if (progressModel.isComplete()) return;
+        progressModel.add(count, System.nanoTime());
+        progressBar.setValue(progressModel.getValue());
+        labelEstimate.setText(getEstimate());
+        if (progressModel.isComplete()){
+            buttonStop.setEnabled(false); 
+            timer.stop();
+            stateCalculus.setIcon(alertIcon);
+            stateCalculus.setText("Calcolo terminato");
         }
     }
 
+    /**
+     * Restituisce il testo del tempo di attesa stimato e della velocità del calcolo.
+     *
+     * @return Il testo dell'etichetta della stima.
+     */
+    private String getEstimate(){
+        if (progressModel.isComplete()) return "Attesa stimata: 00:00";
+        final double eta = progressModel.getEta();
+        if (eta < 0) return "Attesa stimata: -";
+        final String rate = String.format("%,.0f/s", progressModel.getRate());
+        if (eta >= 100 * 3600) return "Attesa: oltre 100 ore (" + rate + ")";
+        final long seconds = (long) Math.ceil(eta);
+        final String time = (seconds >= 3600)
+            ? String.format("%d:%02d:%02d", seconds / 3600, (seconds / 60) % 60, seconds % 60)
+            : String.format("%02d:%02d", seconds / 60, seconds % 60);
+        return "Attesa: " + time + " (" + rate + ")";
+    }
+
 
     /**
      * Calcola l'esponente della potenza di 10 da applicare a un valore numerico.
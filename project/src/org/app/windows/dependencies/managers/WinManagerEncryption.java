@@ -88,6 +88,11 @@ public class WinManagerEncryption {
      */
     private Runnable initAndCheckReadingFile;
 
+    /**
+     * Indica se la chiave in uso è stata generata invece di essere letta da file.
+     */
+    private boolean keyGenerated = false;
+
 
     /**
      * Costruisce un'istanza di WinManagerEncryption.
@@ -96,13 +101,15 @@ public class WinManagerEncryption {
      * @param startCalcEncryption Runnable per avviare la crittografia.
      * @param initAndCheckReadingFile Runnable per inizializzare e controllare la lettura del file.
      * @param checkFileOnchange Runnable per controllare i cambiamenti del file.
+     * @param stopCalcEncryption Runnable per interrompere la crittografia in corso.
+     * @param generateKey Runnable per generare una nuova chiave RSA.
      */
-    public WinManagerEncryption(Supplier<JFrame> getFrameWindowHome,Runnable startCalcEncryption,Runnable initAndCheckReadingFile,Runnable checkFileOnchange){
+    public WinManagerEncryption(Supplier<JFrame> getFrameWindowHome,Runnable startCalcEncryption,Runnable initAndCheckReadingFile,Runnable checkFileOnchange,Runnable stopCalcEncryption,Runnable generateKey){
         this.getFrameWindowHome = getFrameWindowHome;
         this.startCalcEncryption = startCalcEncryption;
         this.initAndCheckReadingFile = initAndCheckReadingFile;
-        windowInputEncryption = new WinInEncryption(openWindowErrorInputEncryption,openWindowReadingFile,checkFileOnchange);
-        windowOutputEncryption = new WinOutEncryption();
+        windowInputEncryption = new WinInEncryption(openWindowErrorInputEncryption,openWindowReadingFile,checkFileOnchange,generateKey);
+        windowOutputEncryption = new WinOutEncryption(stopCalcEncryption);
         windowEncryption = new WinEncryption(windowInputEncryption.getWindow(),windowOutputEncryption.getWindow());
         
     }
@@ -115,7 +122,7 @@ public class WinManagerEncryption {
             windowErrorInputEncryption.dispose();
         }
        
-        switch(windowInputEncryption.getErrorType() + ((windowReadingFileEncryption == null || windowReadingFileEncryption.getPath() == null)?"1":"0")){
+        switch(windowInputEncryption.getErrorType() + ((!keyGenerated && (windowReadingFileEncryption == null || windowReadingFileEncryption.getPath() == null))?"1":"0")){
             case "00":
                 
                 windowOutputEncryption.initWindow(windowInputEncryption.getMetodo());
@@ -166,6 +173,7 @@ public class WinManagerEncryption {
      */
     public void setFileErrorType(boolean state){
         if(windowReadingFileEncryption != null){
+            if(state == true)keyGenerated = false;
             windowReadingFileEncryption.setErrorType(state);
             windowInputEncryption.setLabelFile(state);
             if(state == false){
@@ -175,6 +183,31 @@ public class WinManagerEncryption {
 
     }
    
+    /**
+     * Segnala l'avvio della generazione di una nuova chiave RSA.
+     */
+    public void setKeyGenerating(){
+        keyGenerated = false;
+        windowInputEncryption.setLabelKeyGenerated(false);
+    }
+
+    /**
+     * Segnala che la chiave in uso è stata generata, così il calcolo può essere avviato senza file.
+     */
+    public void setKeyGenerated(){
+        keyGenerated = true;
+        windowInputEncryption.setLabelKeyGenerated(true);
+    }
+
+    /**
+     * Ottiene se la chiave in uso è stata generata invece di essere letta da file.
+     * 
+     * @return true se la chiave è stata generata, false altrimenti.
+     */
+    public boolean getKeyGenerated(){
+        return keyGenerated;
+    }
+
     /**
      * Ottiene se è stato selezionato l'inverso mod.
      * 
@@ -184,6 +217,24 @@ public class WinManagerEncryption {
         return windowInputEncryption.getModInverse();
     }
 
+    /**
+     * Ottiene se è stata selezionata la decrittografia con il teorema cinese del resto.
+     * 
+     * @return true se CRT è selezionato, false altrimenti.
+     */
+    public boolean getCrt(){
+        return windowInputEncryption.getCrt();
+    }
+
+    /**
+     * Ottiene se è stata selezionata la cache dei caratteri cifrati e decifrati.
+     * 
+     * @return true se la cache è selezionata, false altrimenti.
+     */
+    public boolean getCache(){
+        return windowInputEncryption.getCache();
+    }
+
     /**
      * Ottiene il percorso del file di lettura.
      * 
@@ -205,6 +256,40 @@ public class WinManagerEncryption {
         windowOutputEncryption.setResults(results);
     }
 
+    /**
+     * Prepara la barra di avanzamento della finestra di output per un nuovo calcolo.
+     * 
+     * @param chunks Il numero di parti in cui è diviso il messaggio.
+     */
+    public void initProgressBarEncryption(int chunks){
+        windowOutputEncryption.initProgressBar(chunks);
+    }
+
+    /**
+     * Incrementa la barra di avanzamento della finestra di output.
+     */
+    public void incrementProgressBarEncryption(){
+        windowOutputEncryption.incrementProgressBar();
+    }
+
+    /**
+     * Termina il calcolo nella finestra di output mostrando lo stato dato.
+     * 
+     * @param state Il testo che descrive lo stato del calcolo.
+     */
+    public void endCalcEncryption(String state){
+        windowOutputEncryption.endCalc(state);
+    }
+
+    /**
+     * Imposta la descrizione del calcolo della chiave privata nella finestra di output.
+     * 
+     * @param keyInfo La descrizione del calcolo della chiave privata.
+     */
+    public void setKeyInfoEncryption(String keyInfo){
+        windowOutputEncryption.setKeyInfo(keyInfo);
+    }
+
     /**
      * Ottiene il metodo di crittografia selezionato.
      * 
@@ -13,6 +13,7 @@
 package org.app.windows.dependencies.managers;
 
 
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 import javax.swing.JFrame;
@@ -44,6 +45,7 @@ public class WinManagerPrimality {
         "Minimo uguale a massimo",
         "Overflow caratteri",
         "Ammessi solo numeri",
+        "Nessuna ricerca da riprendere",
     };
 
     /**
@@ -71,6 +73,11 @@ public class WinManagerPrimality {
      */
     private WinSavePrimality windowSaveInFile;
 
+    /**
+     * Percorso del file in cui salvare i numeri primi durante la ricerca, {@code null} se il salvataggio avviene solo al termine.
+     */
+    private String streamPath;
+
     /**
      * Finestra principale del test di primalità.
      */
@@ -96,6 +103,11 @@ public class WinManagerPrimality {
      */
     private Runnable startCalcPrimality;
 
+    /**
+     * Azione da eseguire per riprendere il calcolo della primalità dall'ultimo punto di ripresa.
+     */
+    private Runnable resumeCalcPrimality;
+
 
     /**
      * Costruisce un'istanza di WinManagerPrimality.
@@ -104,12 +116,14 @@ public class WinManagerPrimality {
      * @param stopCalcPrimality Runnable per fermare il calcolo della primalità.
      * @param startSavingPrimality Runnable per avviare il salvataggio dei risultati della primalità.
      * @param startCalcPrimality Runnable per avviare il calcolo della primalità.
+     * @param resumeCalcPrimality Runnable per riprendere il calcolo della primalità dall'ultimo punto di ripresa.
      */
-    public WinManagerPrimality(Supplier<JFrame> getFrameWindowHome,Runnable stopCalcPrimality,Runnable startSavingPrimality, Runnable startCalcPrimality  ){
+    public WinManagerPrimality(Supplier<JFrame> getFrameWindowHome,Runnable stopCalcPrimality,Runnable startSavingPrimality, Runnable startCalcPrimality, Runnable resumeCalcPrimality){
         this.getFrameWindowHome = getFrameWindowHome;
         this.stopCalcPrimality = stopCalcPrimality;
         this.startSavingPrimality = startSavingPrimality;
         this.startCalcPrimality = startCalcPrimality;
+        this.resumeCalcPrimality = resumeCalcPrimality;
         windowInput = new WinInPrimality(openWindowErrorInput);
         windowOutput = new WinOutPrimality(this.stopCalcPrimality,openWindowSaveInFile );
         windowPrimalityTest = new WinPrimality(windowInput.getWindow(),windowOutput.getWindow());
@@ -139,6 +153,22 @@ public class WinManagerPrimality {
         windowSaveInFile.initWindow();
     };
 
+    /**
+     * Apre la finestra di salvataggio per scegliere il file in cui scrivere i numeri primi durante la ricerca.
+     * Se il percorso non è valido viene mostrata la finestra di errore e la ricerca viene sviluppata senza salvataggio.
+     */
+    private void openWindowStreamFile(){
+        WinSavePrimality windowStreamFile = new WinSavePrimality("numeri-primi",() -> {});
+        windowStreamFile.initWindow();
+        if(windowStreamFile.getPath() == null)return;
+        if(windowStreamFile.getErrorType()){
+            streamPath = windowStreamFile.getPath();
+        }else{
+            if(windowErrorOutput != null)windowErrorOutput.dispose();
+            windowErrorOutput = new WinErrorOutPrimality(getFrameWindowHome.get(), false);
+        }
+    }
+
     /**
      * Runnable per aprire la finestra di errore dell'input di primalità.
      */
@@ -147,8 +177,11 @@ public class WinManagerPrimality {
         switch(windowInput.getErrorType()){
             case "00":
                 stopCalcPrimality.run();
-                windowOutput.initWindow();
-                windowOutput.initProgressBar(getMax(), getMin());
+                if(windowInput.getResume()){
+                    resumeCalcPrimality.run();
+                    break;
+                }
+                initWindowOutput();
                 startCalcPrimality.run();
                 break;
             case "22":
@@ -183,6 +216,35 @@ public class WinManagerPrimality {
     };
 
 
+    /**
+     * Prepara la finestra di output per un nuovo calcolo, chiedendo prima il file del salvataggio durante la ricerca se l'opzione è attiva.
+     */
+    private void initWindowOutput(){
+        streamPath = null;
+        if(windowInput.getStreamSave())openWindowStreamFile();
+        windowOutput.initWindow();
+        windowOutput.initProgressBar(getMax(), getMin());
+    }
+
+    /**
+     * Prepara la finestra di output per un calcolo ripreso dall'ultimo punto di ripresa.
+     * 
+     * @param next Il prossimo numero da verificare.
+     * @param time Il tempo di calcolo delle esecuzioni precedenti in secondi.
+     */
+    public void initWindowOutputResume(String next, double time){
+        initWindowOutput();
+        windowOutput.resumeProgressBar(getMin(), next, time);
+    }
+
+    /**
+     * Apre la finestra di errore quando non esiste una ricerca interrotta con lo stesso intervallo e lo stesso metodo.
+     */
+    public void openWindowErrorResume(){
+        if(windowErrorInput != null)windowErrorInput.dispose();
+        windowErrorInput = new WinErrorInPrimality(getFrameWindowHome.get(),new String[]{errorMessages[6]});
+    }
+
     /**
      * Ottiene il valore massimo per il test di primalità.
      * 
@@ -255,27 +317,67 @@ public class WinManagerPrimality {
         return windowInput.toStringMetodo();
     }
 
+    /**
+     * Ottiene lo stato dell'opzione del calcolo parallelo.
+     * 
+     * @return true se il calcolo parallelo è attivo, false altrimenti.
+     */
+    public boolean getParallel(){
+        return windowInput.getParallel();
+    }
+
+    /**
+     * Ottiene il modulo della ruota selezionata per generare i candidati.
+     *
+     * @return 1 se la ruota è disattivata, altrimenti 30 o 210.
+     */
+    public int getWheel(){
+        return windowInput.getWheel();
+    }
+
+    /**
+     * Ottiene il numero di basi casuali selezionato per il test di Miller-Rabin.
+     *
+     * @return Il numero di basi casuali provate per i numeri da circa 3,3 * 10^24 in su.
+     */
+    public int getRounds(){
+        return windowInput.getRounds();
+    }
+
     /**
      * Incrementa la barra di progresso nella finestra di output di primalità.
+     * 
+     * @param count Numero di candidati elaborati dall'ultimo aggiornamento.
      */
-    public void incrementProgressBar(){
-        windowOutput.incrementProgressBar();
+    public void incrementProgressBar(long count){
+        windowOutput.incrementProgressBar(count);
     }
 
     /**
      * Incrementa il conteggio dei numeri primi calcolati nella finestra di output di primalità.
+     * 
+     * @param count Numero di numeri primi calcolati dall'ultimo aggiornamento.
+     */
+    public void incrementCalculatedPrimeNumbers(long count){
+        windowOutput.incrementCalculatedPrimeNumbers(count);
+    }
+
+    /**
+     * Imposta la raccolta dei risultati da cui la finestra di output di primalità legge i numeri calcolati.
+     * 
+     * @param source Funzione che restituisce in decimale il numero primo con l'indice dato.
      */
-    public void incrementCalculatedPrimeNumbers(){
-        windowOutput.incrementCalculatedPrimeNumbers();
+    public void setResultsSource(IntFunction<String> source){
+        windowOutput.setResultsSource(source);
     }
 
     /**
-     * Aggiunge un numero calcolato ai risultati nella finestra di output di primalità.
+     * Aggiunge i numeri calcolati ai risultati nella finestra di output di primalità.
      * 
-     * @param result Il numero calcolato da aggiungere ai risultati.
+     * @param count Numero di numeri calcolati aggiunti alla raccolta dall'ultimo aggiornamento.
      */
-    public void appendCalculatedNumber(String result){
-        windowOutput.appendCalculatedNumber(result);
+    public void appendCalculatedNumbers(long count){
+        windowOutput.appendCalculatedNumbers(count);
     }
 
     /**
@@ -297,6 +399,15 @@ public class WinManagerPrimality {
         return windowSaveInFile.getPath();
     }
 
+    /**
+     * Ottiene il percorso del file in cui salvare i numeri primi durante la ricerca.
+     * 
+     * @return Il percorso del file, {@code null} se il salvataggio durante la ricerca non è attivo.
+     */
+    public String getStreamPath(){
+        return streamPath;
+    }
+
     /**
      * Imposta il pannello della griglia nella finestra di test di primalità.
      * 